@@ -0,0 +1,152 @@
+package com.example.userservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The log calls one login request makes, under the logging setup of application.yaml ("default":
+ * synchronous pattern console, DEBUG/TRACE for the app, security and SQL) and of the prod profile
+ * (async JSON, INFO, sampled access log, per-logger rate limit). Output goes to a null stream, so
+ * the default numbers are a best case next to a real terminal or file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class RequestLoggingBenchmark {
+
+    private static final String USERNAME = "benchmark-user";
+
+    private static final String SELECT_USER_SQL = """
+            select
+                u1_0.id,
+                u1_0.created_at,
+                u1_0.email,
+                u1_0.first_name,
+                u1_0.is_active,
+                u1_0.last_name,
+                u1_0.password,
+                u1_0.role,
+                u1_0.updated_at,
+                u1_0.username\s
+            from
+                users u1_0\s
+            where
+                u1_0.username=?\s
+                and u1_0.is_active=true""";
+
+    private static final String INSERT_TOKEN_SQL = """
+            insert\s
+            into
+                refresh_tokens
+                (created_at, expires_at, is_used, token_hash, username, id)\s
+            values
+                (?, ?, ?, ?, ?, ?)""";
+
+    @Param({"default", "prod"})
+    private String pipeline;
+
+    private LoggerContext context;
+    private double sampleRate;
+
+    private Logger requestLog;
+    private Logger securityLog;
+    private Logger controllerLog;
+    private Logger serviceLog;
+    private Logger sqlLog;
+    private Logger binderLog;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+
+        if (pipeline.equals("default")) {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setPattern("%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+            root.addAppender(output(encoder));
+
+            context.getLogger("com.example.userservice").setLevel(Level.DEBUG);
+            context.getLogger("org.springframework.security").setLevel(Level.DEBUG);
+            context.getLogger("org.hibernate.SQL").setLevel(Level.DEBUG);
+            context.getLogger("org.hibernate.type.descriptor.sql.BasicBinder").setLevel(Level.TRACE);
+            sampleRate = 1.0;
+        } else {
+            PerLoggerRateLimitFilter rateLimit = new PerLoggerRateLimitFilter();
+            rateLimit.setContext(context);
+            rateLimit.start();
+            context.addTurboFilter(rateLimit);
+
+            DroppingAsyncAppender async = new DroppingAsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.addAppender(output(new LogstashEncoder()));
+            async.start();
+            root.addAppender(async);
+
+            context.getLogger("com.example.userservice").setLevel(Level.INFO);
+            context.getLogger("org.springframework.security").setLevel(Level.WARN);
+            context.getLogger("org.hibernate.SQL").setLevel(Level.WARN);
+            context.getLogger("org.hibernate.type.descriptor.sql.BasicBinder").setLevel(Level.WARN);
+            sampleRate = 0.01;
+        }
+
+        requestLog = context.getLogger("com.example.userservice.logging.RequestLogFilter");
+        securityLog = context.getLogger("org.springframework.security.web.FilterChainProxy");
+        controllerLog = context.getLogger("com.example.userservice.controller.UserController");
+        serviceLog = context.getLogger("com.example.userservice.service.UserService");
+        sqlLog = context.getLogger("org.hibernate.SQL");
+        binderLog = context.getLogger("org.hibernate.type.descriptor.sql.BasicBinder");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    private OutputStreamAppender<ILoggingEvent> output(Encoder<ILoggingEvent> encoder) {
+        encoder.setContext(context);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    @Benchmark
+    public void loginRequest() {
+        securityLog.debug("Securing POST /api/auth/login");
+        controllerLog.debug("Login request received for username: {}", USERNAME);
+        serviceLog.debug("Login attempt for username: {}", USERNAME);
+
+        sqlLog.debug(SELECT_USER_SQL);
+        binderLog.trace("binding parameter [1] as [VARCHAR] - [{}]", USERNAME);
+
+        sqlLog.debug(INSERT_TOKEN_SQL);
+        for (int parameter = 1; parameter <= 6; parameter++) {
+            binderLog.trace("binding parameter [{}] as [VARCHAR] - [{}]", parameter, USERNAME);
+        }
+        securityLog.debug("Secured POST /api/auth/login");
+
+        if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            requestLog.info("{} {} {} {}ms", "POST", "/api/auth/login", 200, 87);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.userservice.security;
+
+import com.example.userservice.cache.CacheInvalidationBus;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+// The filter's per-request revocation check, with this many other tokens revoked
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RevokedAccessTokensBenchmark {
+
+    private static final long ACCESS_TOKEN_EXPIRATION = TimeUnit.MINUTES.toMillis(15);
+
+    @Param({"0", "100000"})
+    private int revoked;
+
+    private RevokedAccessTokens revokedAccessTokens;
+    private Claims validClaims;
+    private Claims revokedClaims;
+
+    @Setup
+    public void setUp() {
+        revokedAccessTokens = revokedAccessTokens(revoked);
+
+        long expiresAt = System.currentTimeMillis() + ACCESS_TOKEN_EXPIRATION;
+        validClaims = claims(UUID.randomUUID().toString(), expiresAt);
+        revokedClaims = claims(UUID.randomUUID().toString(), expiresAt);
+        revokedAccessTokens.add(revokedClaims.getId(), expiresAt);
+    }
+
+    @Benchmark
+    public boolean validToken() {
+        return revokedAccessTokens.isRevoked(validClaims);
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        return revokedAccessTokens.isRevoked(revokedClaims);
+    }
+
+    static RevokedAccessTokens revokedAccessTokens(int revoked) {
+        RevokedAccessTokens revokedAccessTokens = new RevokedAccessTokens();
+        ReflectionTestUtils.setField(revokedAccessTokens, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revokedAccessTokens, "invalidationBus", mock(CacheInvalidationBus.class));
+        ReflectionTestUtils.setField(revokedAccessTokens, "accessTokenExpiration", ACCESS_TOKEN_EXPIRATION);
+        ReflectionTestUtils.setField(revokedAccessTokens, "expectedPerWindow", 100_000L);
+        ReflectionTestUtils.setField(revokedAccessTokens, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(revokedAccessTokens, "syncOverlap", Duration.ofSeconds(30));
+        ReflectionTestUtils.invokeMethod(revokedAccessTokens, "init");
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < revoked; i++) {
+            // Spread over the token lifetime, so they land in more than one filter
+            revokedAccessTokens.add(UUID.randomUUID().toString(), now + 1 + i * ACCESS_TOKEN_EXPIRATION / revoked);
+        }
+        return revokedAccessTokens;
+    }
+
+    private static Claims claims(String jti, long expiresAt) {
+        return Jwts.claims().id(jti).subject("benchmark-user").expiration(new Date(expiresAt)).build();
+    }
+}
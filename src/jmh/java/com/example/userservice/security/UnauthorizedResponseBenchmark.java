@@ -0,0 +1,65 @@
+package com.example.userservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// A flood of unauthenticated requests: the entry point's 401 against the map-and-new-ObjectMapper one it replaced
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class UnauthorizedResponseBenchmark {
+
+    private JwtAuthenticationEntryPoint entryPoint;
+    private MockHttpServletRequest request;
+    private AuthenticationException authException;
+
+    @Setup
+    public void setUp() throws Exception {
+        ErrorResponses errorResponses = new ErrorResponses();
+        ReflectionTestUtils.setField(errorResponses, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        errorResponses.init();
+
+        entryPoint = new JwtAuthenticationEntryPoint();
+        ReflectionTestUtils.setField(entryPoint, "errorResponses", errorResponses);
+
+        request = new MockHttpServletRequest("GET", "/api/users/profile");
+        authException = new InsufficientAuthenticationException("Full authentication is required to access this resource");
+    }
+
+    @Benchmark
+    public MockHttpServletResponse preSerialized() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        entryPoint.commence(request, response, authException);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse mapWithNewObjectMapper() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setContentType("application/json");
+        response.setStatus(MockHttpServletResponse.SC_UNAUTHORIZED);
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "Authentication required");
+        errorResponse.put("error", "Unauthorized");
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("path", request.getRequestURI());
+
+        ObjectMapper mapper = new ObjectMapper();
+        response.getWriter().write(mapper.writeValueAsString(errorResponse));
+        return response;
+    }
+}
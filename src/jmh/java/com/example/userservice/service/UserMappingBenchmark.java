@@ -0,0 +1,98 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.DataEnvelope;
+import com.example.userservice.dto.LoginResponse;
+import com.example.userservice.dto.UserEnvelope;
+import com.example.userservice.dto.UserPageEnvelope;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Entity-to-DTO mapping and UserController's response envelopes, serialized like Spring MVC does. The *AsMap
+// variants are the HashMap envelopes the controller used to build, kept as a baseline.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserMappingBenchmark {
+
+    private UserService userService;
+    private ObjectMapper objectMapper;
+    private User user;
+    private LoginResponse loginResponse;
+    private Page<UserResponse> page;
+
+    @Setup
+    public void setUp() {
+        userService = new UserService();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        user = new User("benchmark-user", "benchmark-user@example.com", "not-a-real-hash", "Bench", "Mark", Role.USER);
+        user.setId(42L);
+        loginResponse = new LoginResponse("header.payload.signature", "refresh-token", "benchmark-user",
+                "benchmark-user@example.com", "Bench", "Mark", "USER");
+        List<UserResponse> users = IntStream.range(0, 20)
+                .mapToObj(i -> new UserResponse((long) i, "user" + i, "user" + i + "@example.com", "First", "Last", "USER", true))
+                .toList();
+        page = new PageImpl<>(users, PageRequest.of(0, 20), 1000);
+    }
+
+    @Benchmark
+    public UserResponse mapToUserResponse() {
+        return userService.mapToUserResponse(user);
+    }
+
+    @Benchmark
+    public byte[] serializeProfileResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(UserEnvelope.of(userService.mapToUserResponse(user)));
+    }
+
+    @Benchmark
+    public byte[] serializeLoginResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(DataEnvelope.of("Login successful", loginResponse));
+    }
+
+    @Benchmark
+    public byte[] serializeUserPageResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(UserPageEnvelope.of(page));
+    }
+
+    @Benchmark
+    public byte[] serializeProfileResponseAsMap() throws Exception {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("user", userService.mapToUserResponse(user));
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeLoginResponseAsMap() throws Exception {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Login successful");
+        response.put("data", loginResponse);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeUserPageResponseAsMap() throws Exception {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("users", page.getContent());
+        response.put("currentPage", page.getNumber());
+        response.put("totalItems", page.getTotalElements());
+        response.put("totalPages", page.getTotalPages());
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
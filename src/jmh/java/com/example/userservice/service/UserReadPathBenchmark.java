@@ -0,0 +1,102 @@
+package com.example.userservice.service;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.entity.Role;
+import com.example.userservice.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// The admin listing paths against embedded PostgreSQL with 20k users and 100-row pages, through the Spring
+// proxies and read-only transactions. The *Entities variants hydrate managed User entities and map them,
+// as these paths did before they projected into UserResponse, kept as a baseline. Run with the gc profiler
+// for bytes/op. PostgreSQL will not start as root.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserReadPathBenchmark {
+
+    private static final int USERS = 20_000;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        // Arguments, not default properties, so they win over application.yaml
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--spring.jpa.show-sql=false",
+                        "--scheduling.enabled=false",
+                        "--cache-invalidation.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.userservice=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+
+        // Every 10th user is an admin
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO users (id, username, email, password, first_name, last_name, role, is_active, created_at, updated_at)
+                SELECT nextval('users_seq'), 'user' || g, 'user' || g || '@example.com',
+                       '$2a$10$abcdefghijklmnopqrstuuKQzKp0vS8m1nYc6vFQ1kq7YFzQWn1e', 'First' || g, 'Last' || g,
+                       CASE WHEN g % 10 = 0 THEN 'ADMIN' ELSE 'USER' END, true, now(), now()
+                FROM generate_series(1, ?) g
+                """, USERS);
+
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        pageable = PageRequest.of(0, 100);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public Page<UserResponse> getAllUsers() {
+        return userService.getAllUsers(pageable);
+    }
+
+    @Benchmark
+    public Page<UserResponse> getUsersByRole() {
+        return userService.getUsersByRole(Role.ADMIN, pageable);
+    }
+
+    @Benchmark
+    public Page<UserResponse> searchUsers() {
+        return userService.searchUsers("user12", pageable);
+    }
+
+    @Benchmark
+    public Page<UserResponse> getAllUsersEntities() {
+        return transactionTemplate.execute(status ->
+                userRepository.findAll(pageable).map(userService::mapToUserResponse));
+    }
+
+    @Benchmark
+    public Page<UserResponse> getUsersByRoleEntities() {
+        return transactionTemplate.execute(status ->
+                userRepository.findByRole(Role.ADMIN, pageable).map(userService::mapToUserResponse));
+    }
+}
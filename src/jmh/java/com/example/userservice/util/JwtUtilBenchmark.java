@@ -0,0 +1,64 @@
+package com.example.userservice.util;
+
+import com.example.userservice.security.JwtSigningKeys;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtUtilBenchmark {
+
+    // HS256 is the shared-secret baseline the asymmetric algorithms are compared against
+    @Param({"HS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwtUtil jwtUtil;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        JwtSigningKeys signingKeys = new JwtSigningKeys();
+        ReflectionTestUtils.setField(signingKeys, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(signingKeys, "algorithm", algorithm);
+        ReflectionTestUtils.setField(signingKeys, "keyDir", "");
+        ReflectionTestUtils.setField(signingKeys, "activeKeyId", "");
+        ReflectionTestUtils.setField(signingKeys, "generateKeys", true);
+        ReflectionTestUtils.setField(signingKeys, "secret", "mySecretKey123456789012345678901234567890");
+        ReflectionTestUtils.invokeMethod(signingKeys, "init");
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "signingKeys", signingKeys);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtUtil, "initSigningKey");
+
+        accessToken = jwtUtil.generateAccessToken("benchmark-user", "USER");
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken("benchmark-user", "USER");
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtUtil.extractAllClaims(accessToken);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(accessToken);
+    }
+
+    @Benchmark
+    public String generateRefreshTokenString() {
+        return jwtUtil.generateRefreshTokenString();
+    }
+}
@@ -0,0 +1,400 @@
+package com.example.userservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Tells every node about changes that invalidate in-memory state, over Postgres LISTEN/NOTIFY.
+ * <p>
+ * Publishing is transactional: the keys published in one transaction are coalesced and, just before
+ * it commits, get one version from the single-row cache_version counter, one row each in
+ * cache_invalidations and one NOTIFY carrying all of them. The counter's row lock makes versions
+ * commit in order and without gaps, so a listener that sees anything but the next version knows it
+ * missed a notification and resyncs from cache_invalidations instead. The same resync runs after
+ * every (re)connect and when the channel has been quiet for a while. A node that fell behind the
+ * retained log drops its caches wholesale.
+ * <p>
+ * Topics whose state is durable elsewhere and pulled by a sync of its own ({@link #REVOKED_TOKENS},
+ * published on every logout) skip the counter and the log: they go out as a plain NOTIFY, so logouts
+ * never queue on the cache_version row. A lost one is made up by that topic's own sync.
+ * <p>
+ * Notifications arrive on a dedicated connection opened with the datasource settings, outside the
+ * Hikari pool, so a LISTEN never holds a pooled connection.
+ */
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    public static final String USERS = "users";
+    public static final String REVOKED_USERS = "revoked-users";
+    public static final String REVOKED_TOKENS = "revoked-tokens";
+
+    // Backed by revoked_tokens and RevokedAccessTokens.sync(), so best-effort delivery is enough
+    private static final Set<String> UNVERSIONED_TOPICS = Set.of(REVOKED_TOKENS);
+
+    // First payload line of an unversioned notification, in place of the version
+    private static final String UNVERSIONED = "-";
+
+    // NOTIFY payloads are capped at 8000 bytes; larger batches send only the version and listeners resync
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final Object PENDING_KEY = new Object();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache-invalidation.enabled}")
+    private boolean enabled;
+
+    @Value("${cache-invalidation.channel}")
+    private String channel;
+
+    @Value("${cache-invalidation.poll-timeout}")
+    private Duration pollTimeout;
+
+    @Value("${cache-invalidation.resync-interval}")
+    private Duration resyncInterval;
+
+    @Value("${cache-invalidation.reconnect-backoff}")
+    private Duration reconnectBackoff;
+
+    private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    // Highest version applied; -1 until the first connect, which starts from the current version
+    private volatile long lastVersion = -1;
+
+    private Counter publishedCounter;
+    private Counter notifiedCounter;
+    private Counter resyncedCounter;
+    private Counter resyncCounter;
+
+    @PostConstruct
+    void initMetrics() {
+        this.publishedCounter = Counter.builder("cache.invalidation.published")
+                .description("Invalidation keys published, after coalescing within a transaction")
+                .register(meterRegistry);
+        this.notifiedCounter = Counter.builder("cache.invalidation.applied")
+                .description("Invalidation keys applied on this node")
+                .tag("source", "notify")
+                .register(meterRegistry);
+        this.resyncedCounter = Counter.builder("cache.invalidation.applied")
+                .description("Invalidation keys applied on this node")
+                .tag("source", "resync")
+                .register(meterRegistry);
+        this.resyncCounter = Counter.builder("cache.invalidation.resyncs")
+                .description("Version resyncs run after a connect, a missed notification or a quiet period")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers what to do when a key of the given topic is invalidated on any node, this one included.
+     * {@code invalidateAll} runs instead when this node has missed more than the retained log.
+     */
+    public void subscribe(String topic, Consumer<String> invalidate, Runnable invalidateAll) {
+        subscribers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(new Subscriber(invalidate, invalidateAll));
+    }
+
+    public void subscribe(String topic, Consumer<String> invalidate) {
+        subscribe(topic, invalidate, () -> { });
+    }
+
+    /**
+     * Publishes an invalidation when the current transaction commits, or in a transaction of its own
+     * if none is active. Nothing is published if the transaction rolls back.
+     */
+    public void publish(String topic, String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> publish(topic, key));
+            return;
+        }
+
+        PendingInvalidations pending = (PendingInvalidations) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            pending = new PendingInvalidations();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(new Event(topic, key));
+    }
+
+    private void writeEvents(Set<Event> events) {
+        Set<Event> versioned = new LinkedHashSet<>();
+        List<Event> unversioned = new ArrayList<>();
+        for (Event event : events) {
+            (UNVERSIONED_TOPICS.contains(event.topic()) ? unversioned : versioned).add(event);
+        }
+        if (!versioned.isEmpty()) {
+            writeVersioned(versioned);
+        }
+        if (!unversioned.isEmpty()) {
+            notifyUnversioned(unversioned);
+        }
+        publishedCounter.increment(events.size());
+    }
+
+    private void writeVersioned(Set<Event> events) {
+        Long version = jdbcTemplate.queryForObject(
+                "UPDATE cache_version SET version = version + 1 WHERE id = 1 RETURNING version", Long.class);
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO cache_invalidations (version, topic, cache_key, created_at) VALUES (?, ?, ?, now())",
+                events, events.size(), (statement, event) -> {
+                    statement.setLong(1, version);
+                    statement.setString(2, event.topic());
+                    statement.setString(3, event.key());
+                });
+
+        StringBuilder payload = new StringBuilder().append(version);
+        for (Event event : events) {
+            payload.append('\n').append(event.topic()).append('\t').append(event.key());
+        }
+        String notification = payload.toString();
+        if (notification.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            notification = Long.toString(version);
+        }
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, notification);
+    }
+
+    // No log to fall back on, so large batches are split across several notifications instead
+    private void notifyUnversioned(List<Event> events) {
+        StringBuilder payload = new StringBuilder(UNVERSIONED);
+        int bytes = UNVERSIONED.length();
+        for (Event event : events) {
+            String line = "\n" + event.topic() + "\t" + event.key();
+            int lineBytes = line.getBytes(StandardCharsets.UTF_8).length;
+            if (bytes + lineBytes > MAX_PAYLOAD_BYTES && bytes > UNVERSIONED.length()) {
+                jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload.toString());
+                payload = new StringBuilder(UNVERSIONED);
+                bytes = UNVERSIONED.length();
+            }
+            payload.append(line);
+            bytes += lineBytes;
+        }
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload.toString());
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            logger.info("Cache invalidation bus is disabled");
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            try {
+                listener.join(pollTimeout.toMillis() * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + channel + "\"");
+                }
+                logger.info("Listening for cache invalidations on channel {}", channel);
+
+                // Anything published while this node was not listening
+                resync(connection);
+                long lastActivity = System.nanoTime();
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        receive(connection, notifications);
+                        lastActivity = System.nanoTime();
+                    } else if (System.nanoTime() - lastActivity > resyncInterval.toNanos()) {
+                        // Also proves the connection is still alive
+                        resync(connection);
+                        lastActivity = System.nanoTime();
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Cache invalidation listener failed, reconnecting in {}: {}", reconnectBackoff, e.getMessage());
+                sleep(reconnectBackoff);
+            }
+        }
+    }
+
+    // One batch of notifications: applied straight from the payloads while versions are contiguous
+    private void receive(Connection connection, PGNotification[] notifications) throws SQLException {
+        Set<Event> batch = new LinkedHashSet<>();
+        long version = lastVersion;
+        boolean missed = false;
+
+        for (PGNotification notification : notifications) {
+            if (!channel.equals(notification.getName())) {
+                continue;
+            }
+            String[] lines = notification.getParameter().split("\n");
+            if (UNVERSIONED.equals(lines[0])) {
+                addEvents(lines, batch);
+                continue;
+            }
+            long notified = Long.parseLong(lines[0]);
+            if (missed || notified <= version) {
+                continue;
+            }
+            if (notified != version + 1 || lines.length == 1) {
+                // A missed notification, or a batch too large for the payload
+                missed = true;
+                continue;
+            }
+            addEvents(lines, batch);
+            version = notified;
+        }
+
+        apply(batch);
+        notifiedCounter.increment(batch.size());
+        lastVersion = version;
+        if (missed) {
+            resync(connection);
+        }
+    }
+
+    private static void addEvents(String[] lines, Set<Event> batch) {
+        for (int i = 1; i < lines.length; i++) {
+            int tab = lines[i].indexOf('\t');
+            batch.add(new Event(lines[i].substring(0, tab), lines[i].substring(tab + 1)));
+        }
+    }
+
+    private void resync(Connection connection) throws SQLException {
+        resyncCounter.increment();
+        long current = queryLong(connection, "SELECT version FROM cache_version WHERE id = 1");
+        if (lastVersion < 0 || current == lastVersion) {
+            lastVersion = current;
+            return;
+        }
+
+        long oldest = queryLong(connection, "SELECT coalesce(min(version), 0) FROM cache_invalidations");
+        if (oldest == 0 || oldest > lastVersion + 1) {
+            logger.warn("Cache invalidation log no longer reaches version {}, dropping all cached state", lastVersion + 1);
+            subscribers.values().forEach(list -> list.forEach(subscriber -> subscriber.invalidateAll().run()));
+            lastVersion = current;
+            return;
+        }
+
+        Set<Event> batch = new LinkedHashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT topic, cache_key FROM cache_invalidations WHERE version > ? AND version <= ? ORDER BY version")) {
+            statement.setLong(1, lastVersion);
+            statement.setLong(2, current);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    batch.add(new Event(resultSet.getString(1), resultSet.getString(2)));
+                }
+            }
+        }
+
+        logger.info("Resynced cache invalidations from version {} to {} ({} keys)", lastVersion, current, batch.size());
+        apply(batch);
+        resyncedCounter.increment(batch.size());
+        lastVersion = current;
+    }
+
+    private void apply(Set<Event> events) {
+        for (Event event : events) {
+            for (Subscriber subscriber : subscribers.getOrDefault(event.topic(), List.of())) {
+                try {
+                    subscriber.invalidate().accept(event.key());
+                } catch (Exception e) {
+                    logger.error("Failed to apply invalidation {} {}", event.topic(), event.key(), e);
+                }
+            }
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Event(String topic, String key) {}
+
+    private record Subscriber(Consumer<String> invalidate, Runnable invalidateAll) {}
+
+    private class PendingInvalidations implements TransactionSynchronization {
+
+        private final Set<Event> events = new LinkedHashSet<>();
+
+        // As late as possible, so the cache_version row lock (versioned topics only) is held just through the commit
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            writeEvents(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+        }
+    }
+}
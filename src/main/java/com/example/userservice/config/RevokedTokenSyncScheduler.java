@@ -0,0 +1,27 @@
+package com.example.userservice.config;
+
+import com.example.userservice.security.RevokedAccessTokens;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RevokedTokenSyncScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenSyncScheduler.class);
+
+    @Autowired
+    private RevokedAccessTokens revokedAccessTokens;
+
+    // The first run happens at startup and loads every revocation that has not expired yet
+    @Scheduled(fixedDelayString = "${security.token-revocation.sync-interval}")
+    public void syncRevokedTokens() {
+        try {
+            revokedAccessTokens.sync();
+        } catch (Exception e) {
+            logger.error("Failed to sync revoked access tokens", e);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.example.userservice.config;
 
-import com.example.userservice.service.UserService;
+import com.example.userservice.service.TokenCleanupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,14 +13,13 @@ public class TokenCleanupScheduler {
     private static final Logger logger = LoggerFactory.getLogger(TokenCleanupScheduler.class);
 
     @Autowired
-    private UserService userService;
+    private TokenCleanupService tokenCleanupService;
 
     @Scheduled(fixedRate = 3600000) // Run every hour
     public void cleanupExpiredTokens() {
         logger.info("Starting cleanup of expired refresh tokens");
         try {
-            userService.cleanupExpiredTokens();
-            logger.info("Successfully cleaned up expired refresh tokens");
+            tokenCleanupService.cleanupExpiredTokens();
         } catch (Exception e) {
             logger.error("Failed to cleanup expired tokens", e);
         }
@@ -0,0 +1,42 @@
+package com.example.userservice.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Active when spring.threads.virtual.enabled=true and the JVM is 21 or newer. Spring Boot then
+ * runs Tomcat requests, @Scheduled jobs (token cleanup, email outbox) and the application task
+ * executor on virtual threads; this class only adjusts what would otherwise pin a carrier.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    // A synchronous Caffeine load runs inside ConcurrentHashMap.compute, i.e. a synchronized block,
+    // and our loaders do JDBC. In async mode the load runs on its own virtual thread and the
+    // caller parks on the future instead of pinning its carrier.
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> virtualThreadCacheCustomizer(
+            CacheProperties cacheProperties,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        return cacheManager -> {
+            logger.info("Virtual threads enabled, switching caches to async loading");
+            cacheManager.setCaffeine(Caffeine.from(cacheProperties.getCaffeine().getSpec()).executor(executor));
+            cacheManager.setAsyncCacheMode(true);
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.security.JwtSigningKeys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+// Lets other services verify access tokens themselves; keys only change with a restart, so caches may hold them
+@RestController
+public class JwksController {
+
+    @Autowired
+    private JwtSigningKeys signingKeys;
+
+    @Value("${jwt.signing.jwks-max-age}")
+    private Duration jwksMaxAge;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<byte[]> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwksMaxAge).cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(signingKeys.jwks());
+    }
+}
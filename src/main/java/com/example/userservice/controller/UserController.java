@@ -2,7 +2,17 @@ package com.example.userservice.controller;
 
 import com.example.userservice.dto.*;
 import com.example.userservice.entity.Role;
+import com.example.userservice.security.ErrorResponses;
+import com.example.userservice.security.LoginThrottledException;
+import com.example.userservice.security.PasswordHashingRejectedException;
+import com.example.userservice.service.UserDataFormat;
+import com.example.userservice.service.UserExportBusyException;
+import com.example.userservice.service.UserExportService;
+import com.example.userservice.service.UserImportService;
 import com.example.userservice.service.UserService;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,14 +21,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api")
@@ -27,53 +39,61 @@ public class UserController {
 
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private ErrorResponses errorResponses;
+
     // Auth endpoints
     @PostMapping("/auth/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
         try {
-            logger.info("Registration request received for username: {}", request.getUsername());
+            logger.debug("Registration request received for username: {}", request.getUsername());
             UserResponse user = userService.register(request);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "User registered successfully");
-            response.put("user", user);
-
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.status(HttpStatus.CREATED).body(UserEnvelope.of("User registered successfully", user));
+        } catch (PasswordHashingRejectedException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
-            logger.error("Registration failed for username: {}", request.getUsername(), e);
+            if (isExpectedFailure(e)) {
+                logger.warn("Registration failed for username: {}: {}", request.getUsername(), e.getMessage());
+            } else {
+                logger.error("Registration failed for username: {}", request.getUsername(), e);
+            }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
     @PostMapping("/auth/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
-            logger.info("Login request received for username: {}", request.getUsername());
-            LoginResponse loginResponse = userService.login(request);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Login successful");
-            response.put("data", loginResponse);
-
-            return ResponseEntity.ok(response);
+            logger.debug("Login request received for username: {}", request.getUsername());
+            LoginResponse loginResponse = userService.login(request, httpRequest.getRemoteAddr());
+
+            return ResponseEntity.ok(DataEnvelope.of("Login successful", loginResponse));
+        } catch (LoginThrottledException e) {
+            logger.warn("Login throttled for username: {}", request.getUsername());
+            return tooManyAttempts(e);
+        } catch (PasswordHashingRejectedException e) {
+            return serviceBusy(e);
         } catch (Exception e) {
-            logger.error("Login failed for username: {}", request.getUsername(), e);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
+            if (isExpectedFailure(e)) {
+                logger.warn("Login failed for username: {}: {}", request.getUsername(), e.getMessage());
+            } else {
+                logger.error("Login failed for username: {}", request.getUsername(), e);
+            }
 
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
@@ -82,41 +102,37 @@ public class UserController {
         try {
             TokenResponse tokenResponse = userService.refreshToken(request);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", tokenResponse);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(DataEnvelope.of(tokenResponse));
         } catch (Exception e) {
-            logger.error("Token refresh failed", e);
+            if (isExpectedFailure(e)) {
+                logger.warn("Token refresh failed: {}", e.getMessage());
+            } else {
+                logger.error("Token refresh failed", e);
+            }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
     @PostMapping("/auth/logout")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        // /api/auth/** bypasses the JWT filter, so the access token is read and verified here
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageEnvelope.error("Authentication required"));
+        }
+
         try {
-            String username = SecurityContextHolder.getContext().getAuthentication().getName();
-            userService.logout(username);
+            userService.logout(authorization.substring(7));
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Logout successful");
+            return ResponseEntity.ok(MessageEnvelope.ok("Logout successful"));
+        } catch (JwtException e) {
+            logger.warn("Logout with an invalid access token: {}", e.getMessage());
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(MessageEnvelope.error("Invalid access token"));
         } catch (Exception e) {
             logger.error("Logout failed", e);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
@@ -126,22 +142,18 @@ public class UserController {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
 
         try {
-            logger.info("Profile request received for username: {}", username);
+            logger.debug("Profile request received for username: {}", username);
             UserResponse user = userService.getUserByUsername(username);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("user", user);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(UserEnvelope.of(user));
         } catch (Exception e) {
-            logger.error("Failed to get profile for username: {}", username, e);
+            if (isExpectedFailure(e)) {
+                logger.warn("Failed to get profile for username: {}: {}", username, e.getMessage());
+            } else {
+                logger.error("Failed to get profile for username: {}", username, e);
+            }
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
@@ -150,45 +162,32 @@ public class UserController {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
 
         try {
-            logger.info("Profile update request received for username: {}", username);
+            logger.debug("Profile update request received for username: {}", username);
             UserResponse user = userService.updateUser(username, request);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Profile updated successfully");
-            response.put("user", user);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(UserEnvelope.of("Profile updated successfully", user));
         } catch (Exception e) {
             logger.error("Failed to update profile for username: {}", username, e);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
     @GetMapping("/users/{username}")
     public ResponseEntity<?> getUserByUsername(@PathVariable String username) {
         try {
-            logger.info("Get user request received for username: {}", username);
+            logger.debug("Get user request received for username: {}", username);
             UserResponse user = userService.getUserByUsername(username);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("user", user);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(UserEnvelope.of(user));
         } catch (Exception e) {
-            logger.error("Failed to get user by username: {}", username, e);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
+            if (isExpectedFailure(e)) {
+                logger.warn("Failed to get user by username: {}: {}", username, e.getMessage());
+            } else {
+                logger.error("Failed to get user by username: {}", username, e);
+            }
 
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
@@ -199,30 +198,27 @@ public class UserController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String after) {
         try {
             Sort sort = sortDir.equalsIgnoreCase("desc") ?
                     Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+
+            if (after != null) {
+                return ResponseEntity.ok(UserCursorEnvelope.of(userService.scrollAllUsers(after, sort, size)));
+            }
+
             Pageable pageable = PageRequest.of(page, size, sort);
 
             Page<UserResponse> users = userService.getAllUsers(pageable);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("users", users.getContent());
-            response.put("currentPage", users.getNumber());
-            response.put("totalItems", users.getTotalElements());
-            response.put("totalPages", users.getTotalPages());
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(UserPageEnvelope.of(users));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
         } catch (Exception e) {
             logger.error("Failed to get all users", e);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
@@ -231,27 +227,23 @@ public class UserController {
     public ResponseEntity<?> getUsersByRole(
             @PathVariable Role role,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after) {
         try {
+            if (after != null) {
+                return ResponseEntity.ok(UserCursorEnvelope.of(userService.scrollUsersByRole(role, after, size)));
+            }
+
             Pageable pageable = PageRequest.of(page, size);
             Page<UserResponse> users = userService.getUsersByRole(role, pageable);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("users", users.getContent());
-            response.put("currentPage", users.getNumber());
-            response.put("totalItems", users.getTotalElements());
-            response.put("totalPages", users.getTotalPages());
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(UserPageEnvelope.of(users));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
         } catch (Exception e) {
             logger.error("Failed to get users by role: {}", role, e);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
@@ -260,27 +252,23 @@ public class UserController {
     public ResponseEntity<?> searchUsers(
             @RequestParam String searchTerm,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after) {
         try {
+            if (after != null) {
+                return ResponseEntity.ok(UserCursorEnvelope.of(userService.scrollSearchUsers(searchTerm, after, size)));
+            }
+
             Pageable pageable = PageRequest.of(page, size);
             Page<UserResponse> users = userService.searchUsers(searchTerm, pageable);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("users", users.getContent());
-            response.put("currentPage", users.getNumber());
-            response.put("totalItems", users.getTotalElements());
-            response.put("totalPages", users.getTotalPages());
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(UserPageEnvelope.of(users));
+        } catch (IllegalArgumentException e) {
+            return badRequest(e);
         } catch (Exception e) {
             logger.error("Failed to search users with term: {}", searchTerm, e);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
@@ -293,20 +281,11 @@ public class UserController {
             logger.info("Admin update request for user ID: {}", userId);
             UserResponse user = userService.updateUserAsAdmin(userId, request);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "User updated successfully");
-            response.put("user", user);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(UserEnvelope.of("User updated successfully", user));
         } catch (Exception e) {
             logger.error("Failed to update user ID: {}", userId, e);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
@@ -317,20 +296,11 @@ public class UserController {
             logger.info("Promoting user ID to admin: {}", userId);
             UserResponse user = userService.promoteToAdmin(userId);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "User promoted to admin successfully");
-            response.put("user", user);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(UserEnvelope.of("User promoted to admin successfully", user));
         } catch (Exception e) {
             logger.error("Failed to promote user ID: {}", userId, e);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageEnvelope.error(e.getMessage()));
         }
     }
 
@@ -341,20 +311,129 @@ public class UserController {
             logger.info("Deactivating user ID: {}", userId);
             userService.deleteUser(userId);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "User deactivated successfully");
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(MessageEnvelope.ok("User deactivated successfully"));
         } catch (Exception e) {
             logger.error("Failed to deactivate user ID: {}", userId, e);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageEnvelope.error(e.getMessage()));
+        }
+    }
+
+    // Streams the upload in and one NDJSON result line per row back out; see UserImportService
+    @PostMapping(value = "/admin/users/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public void importUsers(@RequestParam(defaultValue = "false") boolean sendWelcomeEmail,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        UserDataFormat format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(TEXT_CSV)
+                ? UserDataFormat.CSV
+                : UserDataFormat.NDJSON;
+        logger.info("User import started ({})", format);
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        userImportService.importUsers(format, request.getInputStream(), response.getOutputStream(), sendWelcomeEmail);
+    }
+
+    @GetMapping("/admin/users/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                         @RequestParam(required = false) Role role,
+                                         @RequestParam(required = false) Boolean active,
+                                         HttpServletResponse response) throws IOException {
+        UserDataFormat dataFormat;
+        if (format.equalsIgnoreCase("csv")) {
+            dataFormat = UserDataFormat.CSV;
+        } else if (format.equalsIgnoreCase("ndjson")) {
+            dataFormat = UserDataFormat.NDJSON;
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(MessageEnvelope.error("Unsupported export format: " + format + " (use csv or ndjson)"));
+        }
+        logger.info("User export started ({}, role={}, active={})", dataFormat, role, active);
+
+        response.setContentType(dataFormat == UserDataFormat.CSV ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"users." + dataFormat.name().toLowerCase() + "\"");
+        try {
+            userExportService.exportUsers(dataFormat, role, active, response.getOutputStream());
+        } catch (UserExportBusyException e) {
+            // Thrown before anything is written, so the attachment headers can still be dropped
+            response.reset();
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(MessageEnvelope.error(e.getMessage()));
+        }
+        // The export was written to the response directly
+        return null;
+    }
+
+    @PostMapping("/admin/users/bulk/deactivate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkDeactivate(@Valid @RequestBody BulkUserRequest request) {
+        try {
+            logger.info("Bulk deactivating {} users", request.getIds().size());
+            BulkUpdateResponse result = userService.bulkDeactivate(request.getIds());
+            return ResponseEntity.ok(BulkUpdateEnvelope.of("Users deactivated successfully", result));
+        } catch (Exception e) {
+            logger.error("Failed to bulk deactivate users", e);
+            return bulkFailure(e);
+        }
+    }
+
+    @PostMapping("/admin/users/bulk/reactivate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkReactivate(@Valid @RequestBody BulkUserRequest request) {
+        try {
+            logger.info("Bulk reactivating {} users", request.getIds().size());
+            BulkUpdateResponse result = userService.bulkReactivate(request.getIds());
+            return ResponseEntity.ok(BulkUpdateEnvelope.of("Users reactivated successfully", result));
+        } catch (Exception e) {
+            logger.error("Failed to bulk reactivate users", e);
+            return bulkFailure(e);
+        }
+    }
 
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    @PostMapping("/admin/users/bulk/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> bulkChangeRole(@Valid @RequestBody BulkUserRequest request) {
+        try {
+            logger.info("Bulk changing role to {} for {} users", request.getRole(), request.getIds().size());
+            BulkUpdateResponse result = userService.bulkChangeRole(request.getIds(), request.getRole());
+            return ResponseEntity.ok(BulkUpdateEnvelope.of("User roles updated successfully", result));
+        } catch (Exception e) {
+            logger.error("Failed to bulk change user roles", e);
+            return bulkFailure(e);
         }
     }
 
+    // UserService reports expected failures (bad credentials, duplicates, unknown users) as plain
+    // RuntimeExceptions. Subclasses (data access errors, pool timeouts, NPEs) are faults and keep their stack trace.
+    private static boolean isExpectedFailure(Exception e) {
+        return e.getClass() == RuntimeException.class;
+    }
+
+    private ResponseEntity<?> serviceBusy(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(MessageEnvelope.error(e.getMessage()));
+    }
+
+    private ResponseEntity<?> bulkFailure(Exception e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageEnvelope.error(e.getMessage()));
+    }
+
+    // The body is fixed and pre-serialized; only Retry-After varies
+    private ResponseEntity<?> tooManyAttempts(LoginThrottledException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponses.tooManyRequests());
+    }
+
+    private ResponseEntity<?> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(MessageEnvelope.error(e.getMessage()));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.example.userservice.dto;
+
+import java.util.List;
+
+public record BulkUpdateEnvelope(boolean success, String message, int updatedCount, List<Long> notFoundIds) {
+
+    public static BulkUpdateEnvelope of(String message, BulkUpdateResponse result) {
+        return new BulkUpdateEnvelope(true, message, result.getUpdatedCount(), result.getNotFoundIds());
+    }
+}
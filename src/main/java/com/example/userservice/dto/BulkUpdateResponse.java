@@ -0,0 +1,18 @@
+package com.example.userservice.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkUpdateResponse {
+    private int updatedCount;
+    private List<Long> notFoundIds;
+
+    public BulkUpdateResponse() {}
+
+    public BulkUpdateResponse(int updatedCount, List<Long> notFoundIds) {
+        this.updatedCount = updatedCount;
+        this.notFoundIds = notFoundIds;
+    }
+}
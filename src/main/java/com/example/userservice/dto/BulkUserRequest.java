@@ -0,0 +1,20 @@
+package com.example.userservice.dto;
+
+import com.example.userservice.entity.Role;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkUserRequest {
+    @NotEmpty(message = "At least one user id is required")
+    @Size(max = 1000, message = "At most 1000 users can be updated at once")
+    private List<Long> ids;
+
+    // Only used by the bulk role change
+    private Role role;
+
+    public BulkUserRequest() {}
+}
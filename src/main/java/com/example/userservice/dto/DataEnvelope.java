@@ -0,0 +1,14 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public record DataEnvelope<T>(boolean success, @JsonInclude(JsonInclude.Include.NON_NULL) String message, T data) {
+
+    public static <T> DataEnvelope<T> of(T data) {
+        return new DataEnvelope<>(true, null, data);
+    }
+
+    public static <T> DataEnvelope<T> of(String message, T data) {
+        return new DataEnvelope<>(true, message, data);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.userservice.dto;
+
+public record ErrorEnvelope(boolean success, String message, String error) {
+
+    public static ErrorEnvelope of(String message, String error) {
+        return new ErrorEnvelope(false, message, error);
+    }
+}
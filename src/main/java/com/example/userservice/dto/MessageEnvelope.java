@@ -0,0 +1,12 @@
+package com.example.userservice.dto;
+
+public record MessageEnvelope(boolean success, String message) {
+
+    public static MessageEnvelope ok(String message) {
+        return new MessageEnvelope(true, message);
+    }
+
+    public static MessageEnvelope error(String message) {
+        return new MessageEnvelope(false, message);
+    }
+}
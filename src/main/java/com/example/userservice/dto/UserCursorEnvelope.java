@@ -0,0 +1,11 @@
+package com.example.userservice.dto;
+
+import java.util.List;
+
+// Cursor mode has no page numbers or totals, so no COUNT(*) is ever run
+public record UserCursorEnvelope(boolean success, List<UserResponse> users, String nextCursor, boolean hasNext) {
+
+    public static UserCursorEnvelope of(CursorPage<UserResponse> page) {
+        return new UserCursorEnvelope(true, page.getItems(), page.getNextCursor(), page.isHasNext());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public record UserEnvelope(boolean success, @JsonInclude(JsonInclude.Include.NON_NULL) String message, UserResponse user) {
+
+    public static UserEnvelope of(UserResponse user) {
+        return new UserEnvelope(true, null, user);
+    }
+
+    public static UserEnvelope of(String message, UserResponse user) {
+        return new UserEnvelope(true, message, user);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.userservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResult {
+    private long line;
+    private String username;
+    private String status;
+    private List<String> errors;
+
+    public UserImportResult() {}
+
+    public UserImportResult(long line, String username, String status, List<String> errors) {
+        this.line = line;
+        this.username = username;
+        this.status = status;
+        this.errors = errors;
+    }
+}
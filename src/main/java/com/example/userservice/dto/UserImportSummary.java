@@ -0,0 +1,13 @@
+package com.example.userservice.dto;
+
+import lombok.Data;
+
+@Data
+public class UserImportSummary {
+    private long rows;
+    private long created;
+    private long invalid;
+    private long duplicates;
+
+    public UserImportSummary() {}
+}
@@ -0,0 +1,12 @@
+package com.example.userservice.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+public record UserPageEnvelope(boolean success, List<UserResponse> users, int currentPage, long totalItems, int totalPages) {
+
+    public static UserPageEnvelope of(Page<UserResponse> page) {
+        return new UserPageEnvelope(true, page.getContent(), page.getNumber(), page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.userservice.dto;
 
+import com.example.userservice.entity.Role;
 import lombok.Data;
 
 @Data
@@ -23,4 +24,9 @@ public class UserResponse {
         this.role = role;
         this.isActive = isActive;
     }
+
+    // Used by JPQL constructor expressions in UserRepository
+    public UserResponse(Long id, String username, String email, String firstName, String lastName, Role role, Boolean isActive) {
+        this(id, username, email, firstName, lastName, role.name(), isActive);
+    }
 }
\ No newline at end of file
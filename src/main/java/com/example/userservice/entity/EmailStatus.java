@@ -0,0 +1,7 @@
+package com.example.userservice.entity;
+
+public enum EmailStatus {
+    PENDING,
+    SENT,
+    DEAD
+}
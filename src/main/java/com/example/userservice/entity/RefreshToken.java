@@ -7,15 +7,21 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_refresh_tokens_token_hash", columnNames = "token_hash")
+}, indexes = {
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
 public class RefreshToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 of the token handed to the client; the raw token is never stored
+    @Column(name = "token_hash", nullable = false, length = 32)
+    private byte[] tokenHash;
 
     @Column(nullable = false)
     private String username;
@@ -31,8 +37,8 @@ public class RefreshToken {
 
     public RefreshToken() {}
 
-    public RefreshToken(String token, String username, LocalDateTime expiresAt) {
-        this.token = token;
+    public RefreshToken(byte[] tokenHash, String username, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
         this.username = username;
         this.expiresAt = expiresAt;
         this.createdAt = LocalDateTime.now();
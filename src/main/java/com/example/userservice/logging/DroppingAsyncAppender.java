@@ -0,0 +1,44 @@
+package com.example.userservice.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback's {@link AsyncAppender} configured to never block a request thread, counting what it drops.
+ * Past the discarding threshold INFO and below are shed first; once the queue is completely full every
+ * event is dropped. The count is exported by {@link LoggingMetrics}.
+ */
+public class DroppingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder dropped = new LongAdder();
+
+    public DroppingAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    public static long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // neverBlock makes the underlying offer() fail silently, so look before handing the event over.
+        // Two threads racing for the last slot can still lose one event uncounted.
+        if (isStarted() && getRemainingCapacity() == 0) {
+            dropped.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        if (super.isDiscardable(event)) {
+            dropped.increment();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.userservice.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+// The logback components are created before Spring, so they keep static counters that are bound here
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("logging.events.dropped", DroppingAsyncAppender.class, c -> DroppingAsyncAppender.getDroppedCount())
+                .description("Log events dropped because the async appender queue was full")
+                .tag("reason", "queue-full")
+                .register(registry);
+        FunctionCounter.builder("logging.events.dropped", PerLoggerRateLimitFilter.class, c -> PerLoggerRateLimitFilter.getSuppressedCount())
+                .description("Log events dropped because their logger exceeded its rate limit")
+                .tag("reason", "rate-limited")
+                .register(registry);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.userservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many events each logger may write per second, so one noisy logger (an error repeated for
+ * every request, say) cannot flood the output or crowd everything else out of the async queue.
+ * Uses one-second windows per logger name; suppressed events are counted by {@link LoggingMetrics}.
+ */
+public class PerLoggerRateLimitFilter extends TurboFilter {
+
+    private static final LongAdder suppressed = new LongAdder();
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private int eventsPerSecond = 100;
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public static long getSuppressedCount() {
+        return suppressed.sum();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Turbo filters run before the level check and for isXxxEnabled() calls too (format == null);
+        // only events that would actually be written may spend the budget
+        if (!isStarted() || format == null || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long second = System.currentTimeMillis() / 1000;
+        if (windows.computeIfAbsent(logger.getName(), name -> new Window()).tryAcquire(second, eventsPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        suppressed.increment();
+        return FilterReply.DENY;
+    }
+
+    private static final class Window {
+
+        private volatile long second;
+        private final AtomicInteger count = new AtomicInteger();
+
+        boolean tryAcquire(long now, int limit) {
+            if (second != now) {
+                synchronized (this) {
+                    if (second != now) {
+                        count.set(0);
+                        second = now;
+                    }
+                }
+            }
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
@@ -8,22 +8,50 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByTokenAndIsUsedFalse(String token);
+    // Consumes the presented token and inserts its replacement in a single statement. The UPDATE's row
+    // lock serializes concurrent rotations of the same token: the loser re-reads is_used = true and
+    // gets no row back. Nothing is returned for unknown, used or expired tokens, or inactive users.
+    @Query(value = """
+            WITH rotated AS (
+                UPDATE refresh_tokens SET is_used = true
+                WHERE token_hash = :oldHash AND is_used = false AND expires_at > :now
+                RETURNING username
+            ), owner AS (
+                SELECT u.username, u.role FROM users u
+                JOIN rotated r ON r.username = u.username
+                WHERE u.is_active = true
+            ), issued AS (
+                INSERT INTO refresh_tokens (id, token_hash, username, expires_at, created_at, is_used)
+                SELECT nextval('refresh_tokens_seq'), :newHash, o.username, :expiresAt, :now, false FROM owner o
+                RETURNING username
+            )
+            SELECT o.username AS username, o.role AS role FROM owner o JOIN issued i ON i.username = o.username
+            """, nativeQuery = true)
+    Optional<RotatedToken> rotateToken(@Param("oldHash") byte[] oldHash,
+                                       @Param("newHash") byte[] newHash,
+                                       @Param("now") LocalDateTime now,
+                                       @Param("expiresAt") LocalDateTime expiresAt);
 
     @Modifying
     @Query("UPDATE RefreshToken rt SET rt.isUsed = true WHERE rt.username = :username")
     void markAllTokensAsUsedForUser(@Param("username") String username);
 
-    @Modifying
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
-    void deleteExpiredTokens(@Param("now") LocalDateTime now);
-
     @Modifying
     @Query("DELETE FROM RefreshToken rt WHERE rt.username = :username")
     void deleteAllTokensForUser(@Param("username") String username);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.username IN :usernames")
+    void deleteAllTokensForUsers(@Param("usernames") Collection<String> usernames);
+
+    interface RotatedToken {
+        String getUsername();
+        String getRole();
+    }
 }
\ No newline at end of file
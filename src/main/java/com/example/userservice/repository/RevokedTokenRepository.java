@@ -0,0 +1,38 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // revoked_at comes from now(), the transaction's start, so the sync overlap must cover the longest revoking transaction
+    @Modifying
+    @Query(value = """
+            INSERT INTO revoked_tokens (jti, username, expires_at, revoked_at)
+            VALUES (:jti, :username, :expiresAt, now())
+            ON CONFLICT (jti) DO NOTHING
+            """, nativeQuery = true)
+    void insertIfAbsent(@Param("jti") String jti,
+                        @Param("username") String username,
+                        @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query("""
+            SELECT rt.jti AS jti, rt.expiresAt AS expiresAt, rt.revokedAt AS revokedAt FROM RevokedToken rt
+            WHERE rt.revokedAt > :since AND rt.expiresAt > :now
+            """)
+    List<Revocation> findRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+
+    interface Revocation {
+        String getJti();
+        LocalDateTime getExpiresAt();
+        LocalDateTime getRevokedAt();
+    }
+}
@@ -1,15 +1,23 @@
 package com.example.userservice.repository;
 
+import com.example.userservice.dto.UserResponse;
 import com.example.userservice.entity.User;
 import com.example.userservice.entity.Role;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -21,12 +29,137 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     @Query("SELECT u FROM User u WHERE u.role = :role")
     Page<User> findByRole(@Param("role") Role role, Pageable pageable);
 
+    // Read paths project straight into UserResponse, skipping entity hydration and the password hash
+
+    @Query(value = "SELECT new com.example.userservice.dto.UserResponse(u.id, u.username, u.email, u.firstName, u.lastName, u.role, u.isActive) FROM User u",
+            countQuery = "SELECT count(u) FROM User u")
+    Page<UserResponse> findAllUserResponses(Pageable pageable);
+
+    @Query(value = "SELECT new com.example.userservice.dto.UserResponse(u.id, u.username, u.email, u.firstName, u.lastName, u.role, u.isActive) FROM User u WHERE u.role = :role",
+            countQuery = "SELECT count(u) FROM User u WHERE u.role = :role")
+    Page<UserResponse> findUserResponsesByRole(@Param("role") Role role, Pageable pageable);
+
+    @Query("SELECT new com.example.userservice.dto.UserResponse(u.id, u.username, u.email, u.firstName, u.lastName, u.role, u.isActive) FROM User u WHERE u.username = :username AND u.isActive = true")
+    Optional<UserResponse> findActiveUserResponseByUsername(@Param("username") String username);
+
     @Query("SELECT u FROM User u WHERE u.isActive = :isActive")
     Page<User> findByIsActive(@Param("isActive") Boolean isActive, Pageable pageable);
 
-    @Query("SELECT u FROM User u WHERE u.username LIKE %:searchTerm% OR u.email LIKE %:searchTerm% OR u.firstName LIKE %:searchTerm% OR u.lastName LIKE %:searchTerm%")
-    Page<User> searchUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
+    // Substring search served by the pg_trgm GIN indexes (db/upgrade/002-user-search-indexes.sql).
+    // Prefix matches on username/email rank first, then trigram similarity of the best column.
+    @Query("""
+            SELECT new com.example.userservice.dto.UserResponse(u.id, u.username, u.email, u.firstName, u.lastName, u.role, u.isActive)
+            FROM User u
+            WHERE u.username ILIKE :pattern OR u.email ILIKE :pattern
+               OR u.firstName ILIKE :pattern OR u.lastName ILIKE :pattern
+            ORDER BY CASE WHEN lower(u.username) LIKE :prefix OR lower(u.email) LIKE :prefix THEN 1 ELSE 0 END DESC,
+                     greatest(function('similarity', u.username, :term), function('similarity', u.email, :term),
+                              function('similarity', u.firstName, :term), function('similarity', u.lastName, :term)) DESC,
+                     u.id
+            """)
+    List<UserResponse> searchUsers(@Param("term") String term,
+                                   @Param("pattern") String pattern,
+                                   @Param("prefix") String prefix,
+                                   Pageable pageable);
+
+    // Separate from searchUsers: a countQuery would be bound with the ranking-only parameters too
+    @Query(value = """
+            SELECT count(*) FROM users u
+            WHERE u.username ILIKE :pattern OR u.email ILIKE :pattern
+               OR u.first_name ILIKE :pattern OR u.last_name ILIKE :pattern
+            """,
+            nativeQuery = true)
+    long countSearchUsers(@Param("pattern") String pattern);
+
+    // Terms shorter than a trigram can't use the GIN indexes; match prefixes via the lower(...) B-trees
+    @Query(value = """
+            SELECT new com.example.userservice.dto.UserResponse(u.id, u.username, u.email, u.firstName, u.lastName, u.role, u.isActive)
+            FROM User u
+            WHERE lower(u.username) LIKE :prefix OR lower(u.email) LIKE :prefix
+            ORDER BY lower(u.username), u.id
+            """,
+            countQuery = """
+            SELECT count(u) FROM User u
+            WHERE lower(u.username) LIKE :prefix OR lower(u.email) LIKE :prefix
+            """)
+    Page<UserResponse> searchUsersByPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    // Keyset (cursor) variants: seek past the last row served instead of OFFSET, and never count
+
+    Window<UserRow> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<UserRow> findByRole(Role role, ScrollPosition position, Sort sort, Limit limit);
+
+    // Same ranking as searchUsers. The first page seeks from prefixRank 2, which sorts before every row.
+    @Query(value = """
+            SELECT * FROM (
+                SELECT u.id AS id, u.username AS username, u.email AS email,
+                       u.first_name AS "firstName", u.last_name AS "lastName",
+                       u.role AS role, u.is_active AS "isActive",
+                       CASE WHEN lower(u.username) LIKE :prefix OR lower(u.email) LIKE :prefix
+                            THEN 1 ELSE 0 END AS "prefixRank",
+                       greatest(similarity(u.username, :term), similarity(u.email, :term),
+                                similarity(u.first_name, :term), similarity(u.last_name, :term)) AS score
+                FROM users u
+                WHERE u.username ILIKE :pattern OR u.email ILIKE :pattern
+                   OR u.first_name ILIKE :pattern OR u.last_name ILIKE :pattern
+            ) hit
+            WHERE hit."prefixRank" < :afterPrefixRank
+               OR (hit."prefixRank" = :afterPrefixRank AND hit.score < :afterScore)
+               OR (hit."prefixRank" = :afterPrefixRank AND hit.score = :afterScore AND hit.id > :afterId)
+            ORDER BY hit."prefixRank" DESC, hit.score DESC, hit.id
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<SearchHit> scrollSearchUsers(@Param("term") String term,
+                                      @Param("pattern") String pattern,
+                                      @Param("prefix") String prefix,
+                                      @Param("afterPrefixRank") int afterPrefixRank,
+                                      @Param("afterScore") float afterScore,
+                                      @Param("afterId") long afterId,
+                                      @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT u.id AS id, u.username AS username, u.email AS email,
+                   u.first_name AS "firstName", u.last_name AS "lastName",
+                   u.role AS role, u.is_active AS "isActive", lower(u.username) AS "sortName"
+            FROM users u
+            WHERE (lower(u.username) LIKE :prefix OR lower(u.email) LIKE :prefix)
+              AND (lower(u.username), u.id) > (:afterSortName, :afterId)
+            ORDER BY lower(u.username), u.id
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<PrefixHit> scrollSearchUsersByPrefix(@Param("prefix") String prefix,
+                                              @Param("afterSortName") String afterSortName,
+                                              @Param("afterId") long afterId,
+                                              @Param("limit") int limit);
+
+    interface UserRow {
+        Long getId();
+        String getUsername();
+        String getEmail();
+        String getFirstName();
+        String getLastName();
+        String getRole();
+        Boolean getIsActive();
+    }
+
+    interface SearchHit extends UserRow {
+        Integer getPrefixRank();
+        Float getScore();
+    }
+
+    interface PrefixHit extends UserRow {
+        String getSortName();
+    }
 }
\ No newline at end of file
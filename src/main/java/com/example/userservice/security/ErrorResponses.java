@@ -0,0 +1,54 @@
+package com.example.userservice.security;
+
+import com.example.userservice.dto.ErrorEnvelope;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * The fixed 401, 403 and 429 bodies, serialized once at startup with the application's ObjectMapper.
+ * These are what a flood of unauthenticated or throttled requests gets back, so each one costs a
+ * byte copy rather than a map, a mapper and a fresh JSON string.
+ */
+@Component
+public class ErrorResponses {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private byte[] unauthorized;
+    private byte[] forbidden;
+    private byte[] tooManyRequests;
+
+    @PostConstruct
+    void init() throws JsonProcessingException {
+        this.unauthorized = objectMapper.writeValueAsBytes(ErrorEnvelope.of("Authentication required", "Unauthorized"));
+        this.forbidden = objectMapper.writeValueAsBytes(ErrorEnvelope.of("Access denied", "Forbidden"));
+        this.tooManyRequests = objectMapper.writeValueAsBytes(ErrorEnvelope.of(LoginThrottle.THROTTLED_MESSAGE, "Too Many Requests"));
+    }
+
+    public byte[] unauthorized() {
+        return unauthorized;
+    }
+
+    public byte[] forbidden() {
+        return forbidden;
+    }
+
+    public byte[] tooManyRequests() {
+        return tooManyRequests;
+    }
+
+    public void write(HttpServletResponse response, int status, byte[] body) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.userservice.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.web.access.AccessDeniedHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+public class JwtAccessDeniedHandler implements AccessDeniedHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAccessDeniedHandler.class);
+
+    @Autowired
+    private ErrorResponses errorResponses;
+
+    @Override
+    public void handle(HttpServletRequest request,
+                       HttpServletResponse response,
+                       AccessDeniedException accessDeniedException) throws IOException {
+
+        logger.debug("Access denied to: {} - {}", request.getRequestURI(), accessDeniedException.getMessage());
+
+        errorResponses.write(response, HttpServletResponse.SC_FORBIDDEN, errorResponses.forbidden());
+    }
+}
@@ -1,42 +1,31 @@
 package com.example.userservice.security;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
 
 @Component
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationEntryPoint.class);
 
+    @Autowired
+    private ErrorResponses errorResponses;
+
     @Override
     public void commence(HttpServletRequest request,
                          HttpServletResponse response,
                          AuthenticationException authException) throws IOException {
 
-        logger.warn("Unauthorized access attempt to: {} - {}", request.getRequestURI(), authException.getMessage());
-
-        response.setContentType("application/json");
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("success", false);
-        errorResponse.put("message", "Authentication required");
-        errorResponse.put("error", "Unauthorized");
-        errorResponse.put("timestamp", LocalDateTime.now().toString());
-        errorResponse.put("path", request.getRequestURI());
+        logger.debug("Unauthorized access attempt to: {} - {}", request.getRequestURI(), authException.getMessage());
 
-        ObjectMapper mapper = new ObjectMapper();
-        response.getWriter().write(mapper.writeValueAsString(errorResponse));
+        errorResponses.write(response, HttpServletResponse.SC_UNAUTHORIZED, errorResponses.unauthorized());
     }
-}
\ No newline at end of file
+}
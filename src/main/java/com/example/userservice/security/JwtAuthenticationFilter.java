@@ -1,6 +1,9 @@
 package com.example.userservice.security;
 
-import com.example.userservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,9 +11,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,6 +25,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -26,11 +33,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserRevocationRegistry userRevocationRegistry;
+
+    @Autowired
+    private RevokedAccessTokens revokedAccessTokens;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.stateless-auth.enabled}")
+    private boolean statelessAuth;
+
+    private Timer authenticatedTimer;
+    private Timer anonymousTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        this.authenticatedTimer = filterTimer("authenticated");
+        this.anonymousTimer = filterTimer("anonymous");
+    }
+
+    private Timer filterTimer(String outcome) {
+        return Timer.builder("auth.filter")
+                .description("Time the JWT filter spends authenticating a request, excluding the rest of the chain")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -45,47 +80,70 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String username = null;
-        String jwt = null;
-        String role = null;
+        long startedAt = System.nanoTime();
+        Claims claims = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+            String jwt = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
-                role = jwtUtil.extractRole(jwt);
-                logger.debug("Extracted username: {} and role: {} from JWT", username, role);
+                // Signature and expiry are checked once per token, then served from the cache
+                claims = verifiedTokenCache.getVerifiedClaims(jwt);
             } catch (Exception e) {
                 logger.warn("Failed to extract data from JWT: {}", e.getMessage());
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (claims != null && revokedAccessTokens.isRevoked(claims)) {
+            logger.debug("Rejected revoked access token {}", claims.getId());
+            claims = null;
+        }
+
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String username = claims.getSubject();
+            String role = claims.get("role", String.class);
+            logger.debug("Extracted username: {} and role: {} from JWT", username, role);
+
             try {
-                if (jwtUtil.validateToken(jwt, username)) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-
-                    authToken.setDetails(
-                            new WebAuthenticationDetailsSource().buildDetails(request)
-                    );
-
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.debug("Successfully authenticated user: {} with role: {}", username, role);
-                } else {
-                    logger.warn("JWT token validation failed for user: {}", username);
-                }
+                UserDetails userDetails = resolveUserDetails(claims, username, role);
+
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                        );
+
+                authToken.setDetails(
+                        new WebAuthenticationDetailsSource().buildDetails(request)
+                );
+
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                logger.debug("Successfully authenticated user: {} with role: {}", username, role);
             } catch (Exception e) {
                 logger.error("Error during JWT authentication for user: {} - Error: {}", username, e.getMessage());
             }
         }
 
+        Timer timer = SecurityContextHolder.getContext().getAuthentication() != null ? authenticatedTimer : anonymousTimer;
+        timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolveUserDetails(Claims claims, String username, String role) {
+        if (!statelessAuth) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+
+        // Stateless mode: trust the verified claims, only checking for accounts changed since issue
+        if (userRevocationRegistry.isRevoked(username, claims.getIssuedAt())) {
+            throw new DisabledException("Token was issued before the account was changed");
+        }
+
+        return new User(
+                username,
+                "",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+        );
+    }
 }
\ No newline at end of file
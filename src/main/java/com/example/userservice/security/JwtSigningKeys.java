@@ -0,0 +1,164 @@
+package com.example.userservice.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.UnsupportedKeyException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * The keys access tokens are signed and verified with, looked up by the {@code kid} header.
+ * <p>
+ * With EdDSA or ES256 the keys are read from {@code jwt.signing.key-dir}: {@code <kid>.pub.pem}
+ * (X.509) for every key that is still accepted and published in the JWKS, and {@code <kid>.pem}
+ * (PKCS#8) for the active key. Rotating is a matter of shipping the new public key everywhere,
+ * switching {@code active-key-id}, and deleting the old public key once the last token it signed
+ * has expired. Without a key directory startup fails, unless {@code jwt.signing.generate-keys}
+ * asks for a throwaway key pair, which only suits a single dev or load-test node. HS256, the
+ * default, keeps the shared {@code jwt.secret} and publishes no keys.
+ */
+@Component
+public class JwtSigningKeys extends LocatorAdapter<Key> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtSigningKeys.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${jwt.signing.algorithm}")
+    private String algorithm;
+
+    @Value("${jwt.signing.key-dir:}")
+    private String keyDir;
+
+    @Value("${jwt.signing.active-key-id:}")
+    private String activeKeyId;
+
+    @Value("${jwt.signing.generate-keys:false}")
+    private boolean generateKeys;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    private Key signingKey;
+    private Map<String, PublicKey> verificationKeys = Map.of();
+    private byte[] jwks;
+
+    @PostConstruct
+    void init() throws IOException, GeneralSecurityException {
+        switch (algorithm) {
+            case "HS256" -> {
+                signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+                activeKeyId = null;
+            }
+            case "EdDSA", "ES256" -> {
+                if (!keyDir.isBlank()) {
+                    loadKeys(Path.of(keyDir));
+                } else if (generateKeys) {
+                    generateKeys();
+                } else {
+                    throw new IllegalStateException("jwt.signing.algorithm " + algorithm
+                            + " needs jwt.signing.key-dir; every node and restart must share the keys");
+                }
+            }
+            default -> throw new IllegalStateException("Unsupported jwt.signing.algorithm: " + algorithm);
+        }
+
+        List<Map<String, ?>> keys = new ArrayList<>();
+        verificationKeys.forEach((kid, key) ->
+                keys.add(Jwks.builder().key(key).id(kid).algorithm(algorithm).publicKeyUse("sig").build()));
+        jwks = objectMapper.writeValueAsBytes(Map.of("keys", keys));
+        logger.info("Signing access tokens with {} (kid {}), {} verification keys published", algorithm, activeKeyId, keys.size());
+    }
+
+    private void generateKeys() {
+        KeyPair keyPair = "EdDSA".equals(algorithm)
+                ? Jwts.SIG.EdDSA.keyPair().build()
+                : Jwts.SIG.ES256.keyPair().build();
+        activeKeyId = UUID.randomUUID().toString();
+        signingKey = keyPair.getPrivate();
+        verificationKeys = Map.of(activeKeyId, keyPair.getPublic());
+        logger.warn("Generated a temporary {} key; tokens will not verify on other nodes or after a restart", algorithm);
+    }
+
+    private void loadKeys(Path dir) throws IOException, GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance("EdDSA".equals(algorithm) ? "EdDSA" : "EC");
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".pub.pem")).sorted().toList()) {
+                String kid = file.getFileName().toString().replace(".pub.pem", "");
+                keys.put(kid, keyFactory.generatePublic(new X509EncodedKeySpec(readPem(file))));
+            }
+        }
+        if (activeKeyId.isBlank() || !keys.containsKey(activeKeyId)) {
+            throw new IllegalStateException("jwt.signing.active-key-id must name a key in " + dir + " with a .pub.pem file");
+        }
+        signingKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(readPem(dir.resolve(activeKeyId + ".pem"))));
+        verificationKeys = keys;
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        String base64 = Files.readString(file)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    // The parser still checks that the header's alg matches the key type, so an HS256 token can't borrow a public key
+    @Override
+    protected Key locate(JwsHeader header) {
+        if (activeKeyId == null) {
+            return signingKey;
+        }
+        String kid = header.getKeyId();
+        PublicKey key = kid != null ? verificationKeys.get(kid) : null;
+        if (key == null) {
+            throw new UnsupportedKeyException("Unknown signing key id");
+        }
+        return key;
+    }
+
+    public Key signingKey() {
+        return signingKey;
+    }
+
+    /**
+     * The kid to put in the header of new tokens, or null for HS256.
+     */
+    public String activeKeyId() {
+        return activeKeyId;
+    }
+
+    /**
+     * The public keys as a JWK Set, serialized once since they only change with a restart.
+     */
+    public byte[] jwks() {
+        return jwks;
+    }
+}
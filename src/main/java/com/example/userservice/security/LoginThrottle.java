@@ -0,0 +1,237 @@
+package com.example.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token-bucket limiter in front of login, keyed separately by username and client IP.
+ * Consecutive failures lock a username out for a period that doubles with every further failure.
+ * An IP only gets the rate limit: behind a NAT or proxy it is shared by every user, so counting its
+ * failures would let a handful of typos lock all of them out.
+ * Buckets update with a CAS on an immutable state, so no request ever blocks on a lock, and
+ * idle buckets are evicted so a flood of random keys can't grow memory without bound.
+ */
+@Component
+public class LoginThrottle {
+
+    static final String THROTTLED_MESSAGE = "Too many login attempts, please try again later";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.login-throttle.username.capacity}")
+    private int usernameCapacity;
+
+    @Value("${security.login-throttle.username.refill-per-minute}")
+    private int usernameRefillPerMinute;
+
+    @Value("${security.login-throttle.ip.capacity}")
+    private int ipCapacity;
+
+    @Value("${security.login-throttle.ip.refill-per-minute}")
+    private int ipRefillPerMinute;
+
+    @Value("${security.login-throttle.failures-before-lockout}")
+    private int failuresBeforeLockout;
+
+    @Value("${security.login-throttle.base-lockout}")
+    private Duration baseLockout;
+
+    @Value("${security.login-throttle.max-lockout}")
+    private Duration maxLockout;
+
+    @Value("${security.login-throttle.idle-timeout}")
+    private Duration idleTimeout;
+
+    @Value("${security.login-throttle.max-keys}")
+    private long maxKeys;
+
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Cache<String, Bucket> usernameBuckets;
+    private Cache<String, Bucket> ipBuckets;
+    private Counter usernameRejections;
+    private Counter ipRejections;
+
+    @PostConstruct
+    void init() {
+        // A locked-out bucket must not be evicted for idleness before its lockout ends
+        Duration idle = idleTimeout.compareTo(maxLockout) > 0 ? idleTimeout : maxLockout;
+
+        this.usernameBuckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idle)
+                .ticker(ticker)
+                .build();
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idle)
+                .ticker(ticker)
+                .build();
+
+        this.usernameRejections = Counter.builder("login.throttled")
+                .description("Login attempts rejected by the throttle before any lookup or hashing")
+                .tag("key", "username")
+                .register(meterRegistry);
+        this.ipRejections = Counter.builder("login.throttled")
+                .description("Login attempts rejected by the throttle before any lookup or hashing")
+                .tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one attempt from both the username and the IP bucket, or throws
+     * {@link LoginThrottledException} if either is empty or locked out. A rejected attempt
+     * takes nothing from either bucket.
+     */
+    public void acquire(String username, String clientIp) {
+        long now = ticker.read();
+        Bucket usernameBucket = usernameBucket(username, now);
+        Bucket ipBucket = ipBucket(clientIp, now);
+
+        long usernameWait = usernameBucket.waitNanos(now);
+        if (usernameWait > 0) {
+            usernameRejections.increment();
+            throw throttled(usernameWait);
+        }
+        long ipWait = ipBucket.waitNanos(now);
+        if (ipWait > 0) {
+            ipRejections.increment();
+            throw throttled(ipWait);
+        }
+
+        // Both had room a moment ago; a concurrent caller may still have drained one since
+        usernameWait = usernameBucket.tryAcquire(now);
+        if (usernameWait > 0) {
+            usernameRejections.increment();
+            throw throttled(usernameWait);
+        }
+        ipWait = ipBucket.tryAcquire(now);
+        if (ipWait > 0) {
+            usernameBucket.refund();
+            ipRejections.increment();
+            throw throttled(ipWait);
+        }
+    }
+
+    public void recordFailure(String username) {
+        long now = ticker.read();
+        usernameBucket(username, now).recordFailure(now);
+    }
+
+    public void recordSuccess(String username) {
+        Bucket bucket = usernameBuckets.getIfPresent(usernameKey(username));
+        if (bucket != null) {
+            bucket.resetFailures();
+        }
+    }
+
+    private Bucket usernameBucket(String username, long now) {
+        return usernameBuckets.get(usernameKey(username), key -> new Bucket(usernameCapacity, usernameRefillPerMinute, now));
+    }
+
+    private Bucket ipBucket(String clientIp, long now) {
+        return ipBuckets.get(clientIp, key -> new Bucket(ipCapacity, ipRefillPerMinute, now));
+    }
+
+    private static String usernameKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static LoginThrottledException throttled(long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new LoginThrottledException(THROTTLED_MESSAGE, retryAfterSeconds);
+    }
+
+    private final class Bucket {
+
+        private final int capacity;
+        private final double refillPerNano;
+        private final AtomicReference<State> state;
+
+        Bucket(int capacity, int refillPerMinute, long now) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.state = new AtomicReference<>(new State(capacity, now, 0, Long.MIN_VALUE));
+        }
+
+        // The nanos until an attempt would be admitted, without taking one
+        long waitNanos(long now) {
+            State current = state.get();
+            if (now < current.lockedUntil()) {
+                return current.lockedUntil() - now;
+            }
+            double tokens = tokens(current, now);
+            return tokens < 1 ? (long) Math.ceil((1 - tokens) / refillPerNano) : 0;
+        }
+
+        // Returns 0 when an attempt was taken, otherwise the nanos until one will be available
+        long tryAcquire(long now) {
+            while (true) {
+                State current = state.get();
+                if (now < current.lockedUntil()) {
+                    return current.lockedUntil() - now;
+                }
+
+                double tokens = tokens(current, now);
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / refillPerNano);
+                }
+
+                State next = new State(tokens - 1, Math.max(now, current.refilledAt()), current.failures(), current.lockedUntil());
+                if (state.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        void recordFailure(long now) {
+            state.updateAndGet(current -> {
+                int failures = current.failures() + 1;
+                long lockedUntil = current.lockedUntil();
+                if (failures >= failuresBeforeLockout) {
+                    lockedUntil = Math.max(lockedUntil, now + lockout(failures - failuresBeforeLockout));
+                }
+                return new State(current.tokens(), current.refilledAt(), failures, lockedUntil);
+            });
+        }
+
+        void refund() {
+            state.updateAndGet(current -> new State(Math.min(capacity, current.tokens() + 1), current.refilledAt(),
+                    current.failures(), current.lockedUntil()));
+        }
+
+        void resetFailures() {
+            state.updateAndGet(current -> new State(current.tokens(), current.refilledAt(), 0, current.lockedUntil()));
+        }
+
+        // Concurrent callers read the ticker before racing for the bucket, so now can trail refilledAt
+        private double tokens(State current, long now) {
+            long elapsed = Math.max(0, now - current.refilledAt());
+            return Math.min(capacity, current.tokens() + elapsed * refillPerNano);
+        }
+
+        private long lockout(int step) {
+            long max = maxLockout.toNanos();
+            long lockout = baseLockout.toNanos();
+            for (int i = 0; i < step && lockout < max; i++) {
+                lockout *= 2;
+            }
+            return Math.min(lockout, max);
+        }
+    }
+
+    private record State(double tokens, long refilledAt, int failures, long lockedUntil) {}
+}
@@ -0,0 +1,171 @@
+package com.example.userservice.security;
+
+import com.example.userservice.cache.CacheInvalidationBus;
+import com.example.userservice.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Access tokens revoked before they expire, keyed by jti. The per-request check is a Bloom filter
+ * lookup, confirmed against an exact set only on a hit, so the common not-revoked case costs a few
+ * word reads however many tokens are revoked. Revocations are stored in revoked_tokens and reach the
+ * other nodes over the {@link CacheInvalidationBus} within milliseconds; every node also pulls the rows
+ * added since its last sync, so even a lost notification is made up within one sync interval.
+ * <p>
+ * There is one filter per access-token lifetime of expiry times. A token is only ever looked up in
+ * the filter for its own exp, and a filter is dropped once every token it can hold has expired.
+ */
+@Component
+public class RevokedAccessTokens {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevokedAccessTokens.class);
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${jwt.access-token.expiration}")
+    private Long accessTokenExpiration;
+
+    @Value("${security.token-revocation.expected-per-window}")
+    private long expectedPerWindow;
+
+    @Value("${security.token-revocation.false-positive-rate}")
+    private double falsePositiveRate;
+
+    @Value("${security.token-revocation.sync-overlap}")
+    private Duration syncOverlap;
+
+    private final ConcurrentNavigableMap<Long, JtiBloomFilter> filters = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> expiresAt = new ConcurrentHashMap<>();
+
+    // Newest revoked_at seen so far; null until the first sync has loaded everything unexpired
+    private volatile LocalDateTime syncedUpTo;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("token.revocation.entries", expiresAt, Map::size)
+                .description("Revoked, not yet expired access tokens held in memory")
+                .register(meterRegistry);
+
+        // Keys are "jti:expiresAtMillis"; the periodic sync remains the backstop for anything missed
+        invalidationBus.subscribe(CacheInvalidationBus.REVOKED_TOKENS, key -> {
+            int separator = key.lastIndexOf(':');
+            add(key.substring(0, separator), Long.parseLong(key.substring(separator + 1)));
+        });
+    }
+
+    /**
+     * Revokes the access token with the given claims. Must run inside a transaction; the token is
+     * rejected locally once that transaction commits. Tokens without a jti cannot be revoked.
+     */
+    public void revoke(String username, Claims claims) {
+        String jti = claims.getId();
+        Date expiration = claims.getExpiration();
+        if (jti == null || expiration == null) {
+            return;
+        }
+
+        revokedTokenRepository.insertIfAbsent(jti, username, toLocalDateTime(expiration.getTime()));
+        invalidationBus.publish(CacheInvalidationBus.REVOKED_TOKENS, jti + ":" + expiration.getTime());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(jti, expiration.getTime());
+                }
+            });
+        } else {
+            add(jti, expiration.getTime());
+        }
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        Date expiration = claims.getExpiration();
+        if (jti == null || expiration == null) {
+            return false;
+        }
+
+        JtiBloomFilter filter = filters.get(window(expiration.getTime()));
+        return filter != null && filter.mightContain(jti) && expiresAt.containsKey(jti);
+    }
+
+    /**
+     * Pulls revocations made on any node since the last sync and drops expired ones. The query
+     * reaches back {@code sync-overlap} before the newest row already seen, so rows from transactions
+     * that committed late are still picked up; re-reading a row is harmless.
+     */
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime newest = syncedUpTo;
+        LocalDateTime since = newest == null ? BEGINNING : newest.minus(syncOverlap);
+
+        List<RevokedTokenRepository.Revocation> revocations = revokedTokenRepository.findRevokedSince(since, now);
+        for (RevokedTokenRepository.Revocation revocation : revocations) {
+            add(revocation.getJti(), toEpochMillis(revocation.getExpiresAt()));
+            if (newest == null || revocation.getRevokedAt().isAfter(newest)) {
+                newest = revocation.getRevokedAt();
+            }
+        }
+        syncedUpTo = newest;
+
+        evictExpired(System.currentTimeMillis());
+        logger.debug("Revoked token sync read {} rows, {} tokens revoked", revocations.size(), expiresAt.size());
+    }
+
+    void add(String jti, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        // Exact set first: a Bloom hit must always find its entry
+        expiresAt.put(jti, expiresAtMillis);
+        filters.computeIfAbsent(window(expiresAtMillis), w -> new JtiBloomFilter(expectedPerWindow, falsePositiveRate))
+                .add(jti);
+    }
+
+    private void evictExpired(long nowMillis) {
+        expiresAt.values().removeIf(expiry -> expiry <= nowMillis);
+        filters.headMap(window(nowMillis)).clear();
+    }
+
+    private long window(long expiresAtMillis) {
+        return expiresAtMillis / accessTokenExpiration;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.userservice.security;
+
+import com.example.userservice.cache.CacheInvalidationBus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Remembers users whose account changed (deactivated, role changed) so that access tokens
+ * issued before the change are rejected in stateless mode. Entries only need to outlive
+ * the access tokens they cover.
+ */
+@Component
+public class UserRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserRevocationRegistry.class);
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${jwt.access-token.expiration}")
+    private Long accessTokenExpiration;
+
+    @Value("${security.stateless-auth.revocation-max-size}")
+    private long maxSize;
+
+    private Cache<String, Long> revokedAt;
+
+    @PostConstruct
+    void init() {
+        this.revokedAt = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(accessTokenExpiration))
+                .build();
+
+        // Keys are "username:revokedAtMillis", stamped by the revoking node. A late notification or a
+        // resync must not move the cutoff past tokens issued after the revocation.
+        // Entries older than the retained log have expired anyway, so a full resync has nothing to redo
+        invalidationBus.subscribe(CacheInvalidationBus.REVOKED_USERS, key -> {
+            int separator = key.lastIndexOf(':');
+            record(key.substring(0, separator), Long.parseLong(key.substring(separator + 1)));
+        });
+    }
+
+    public void revoke(String username) {
+        long revokedAtMillis = System.currentTimeMillis();
+        invalidationBus.publish(CacheInvalidationBus.REVOKED_USERS, username + ":" + revokedAtMillis);
+
+        // Locally, record after commit so a token issued from the old, still visible state is covered too
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(username, System.currentTimeMillis());
+                }
+            });
+        } else {
+            record(username, revokedAtMillis);
+        }
+    }
+
+    public boolean isRevoked(String username, Date issuedAt) {
+        Long revokedAtMillis = revokedAt.getIfPresent(username);
+        if (revokedAtMillis == null) {
+            return false;
+        }
+        // iat has second precision, so tokens from the revocation's own second are rejected as well
+        return issuedAt == null || issuedAt.getTime() <= revokedAtMillis;
+    }
+
+    private void record(String username, long revokedAtMillis) {
+        // The same revocation arrives locally and over the bus; keep the later cutoff
+        revokedAt.asMap().merge(username, revokedAtMillis, Math::max);
+        logger.info("Access tokens issued so far for user {} are revoked", username);
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.userservice.service;
+
+import com.example.userservice.entity.EmailOutbox;
+import com.example.userservice.entity.EmailStatus;
+import com.example.userservice.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JavaMailSender javaMailSender;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${email.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.initial-backoff}")
+    private Duration initialBackoff;
+
+    @Value("${email.outbox.max-backoff}")
+    private Duration maxBackoff;
+
+    @Value("${email.outbox.lease}")
+    private Duration lease;
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval}")
+    public void dispatchPending() {
+        try {
+            int dispatched;
+            do {
+                dispatched = dispatchBatch();
+            } while (dispatched == batchSize);
+        } catch (Exception e) {
+            logger.error("Failed to dispatch email outbox", e);
+        }
+    }
+
+    public int dispatchBatch() {
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        // Sending happens outside any transaction, so SMTP latency never holds a DB connection
+        List<SimpleMailMessage> messages = batch.stream().map(this::toMailMessage).toList();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<Object, Exception> failures = send(messages);
+        sample.stop(meterRegistry.timer("email.outbox.send"));
+        meterRegistry.counter("email.outbox.sent").increment(messages.size() - failures.size());
+        meterRegistry.counter("email.outbox.failed").increment(failures.size());
+
+        transactionTemplate.execute(status -> {
+            recordResults(batch, messages, failures);
+            return null;
+        });
+        return batch.size();
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = emailOutboxRepository.lockDueMessages(now, batchSize);
+
+        // Lease the rows: if this node dies mid-send they become due again once the lease runs out
+        for (EmailOutbox message : batch) {
+            message.setNextAttemptAt(now.plus(lease));
+        }
+        return emailOutboxRepository.saveAll(batch);
+    }
+
+    private Map<Object, Exception> send(List<SimpleMailMessage> messages) {
+        try {
+            // One call sends the whole batch over a single SMTP connection. JavaMail synchronizes around
+            // its socket I/O, so on virtual threads only this one dispatcher thread can pin a carrier.
+            javaMailSender.send(messages.toArray(new SimpleMailMessage[0]));
+            return Collections.emptyMap();
+        } catch (MailSendException e) {
+            if (!e.getFailedMessages().isEmpty()) {
+                return e.getFailedMessages();
+            }
+            return allFailed(messages, e);
+        } catch (MailException e) {
+            return allFailed(messages, e);
+        }
+    }
+
+    private void recordResults(List<EmailOutbox> batch, List<SimpleMailMessage> messages, Map<Object, Exception> failures) {
+        Map<Long, EmailOutbox> current = emailOutboxRepository.findAllById(batch.stream().map(EmailOutbox::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(EmailOutbox::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox message = current.get(batch.get(i).getId());
+            if (message == null) {
+                continue;
+            }
+
+            Exception failure = failures.get(messages.get(i));
+            if (failure == null) {
+                message.setStatus(EmailStatus.SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+                logger.info("Email sent successfully to: {}", message.getRecipient());
+                continue;
+            }
+
+            message.setAttempts(message.getAttempts() + 1);
+            message.setLastError(truncate(failure.getMessage()));
+            if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(EmailStatus.DEAD);
+                logger.error("Giving up on email {} to {} after {} attempts: {}",
+                        message.getId(), message.getRecipient(), message.getAttempts(), failure.getMessage());
+            } else {
+                message.setNextAttemptAt(now.plus(backoff(message.getAttempts())));
+                logger.warn("Failed to send email {} to {} (attempt {}): {}",
+                        message.getId(), message.getRecipient(), message.getAttempts(), failure.getMessage());
+            }
+        }
+
+        emailOutboxRepository.saveAll(current.values());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private SimpleMailMessage toMailMessage(EmailOutbox outbox) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(outbox.getRecipient());
+        message.setSubject(outbox.getSubject());
+        message.setText(outbox.getBody());
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(List<SimpleMailMessage> messages, Exception e) {
+        return messages.stream().collect(Collectors.toMap(Function.identity(), message -> e, (a, b) -> a));
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
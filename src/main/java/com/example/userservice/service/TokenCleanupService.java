@@ -0,0 +1,160 @@
+package com.example.userservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes expired refresh tokens, expired access-token revocations and cache invalidations past their
+ * retention in small autocommit batches, so no single statement holds row locks for long. A Postgres
+ * advisory lock makes sure only one replica runs at a time.
+ */
+@Service
+public class TokenCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenCleanupService.class);
+
+    // Arbitrary application-wide key for pg_try_advisory_lock
+    private static final long CLEANUP_LOCK_KEY = 4_711_001L;
+
+    private static final String DELETE_BATCH_SQL =
+            "DELETE FROM refresh_tokens WHERE id IN (" +
+            "SELECT id FROM refresh_tokens WHERE expires_at < ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final String DELETE_REVOKED_BATCH_SQL =
+            "DELETE FROM revoked_tokens WHERE jti IN (" +
+            "SELECT jti FROM revoked_tokens WHERE expires_at < ? LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    // The log has no key; ctid identifies the rows picked by the subquery
+    private static final String DELETE_INVALIDATIONS_BATCH_SQL =
+            "DELETE FROM cache_invalidations WHERE ctid = ANY(ARRAY(" +
+            "SELECT ctid FROM cache_invalidations WHERE created_at < ? LIMIT ? FOR UPDATE SKIP LOCKED))";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${token-cleanup.batch-size}")
+    private int batchSize;
+
+    @Value("${token-cleanup.max-batches}")
+    private int maxBatches;
+
+    @Value("${cache-invalidation.retention}")
+    private Duration invalidationRetention;
+
+    private Counter deletedCounter;
+    private Counter batchCounter;
+    private Counter skippedCounter;
+    private Timer durationTimer;
+
+    @PostConstruct
+    void initMetrics() {
+        this.deletedCounter = Counter.builder("token.cleanup.deleted")
+                .description("Expired refresh tokens deleted")
+                .register(meterRegistry);
+        this.batchCounter = Counter.builder("token.cleanup.batches")
+                .description("Delete batches executed by the token cleanup")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("token.cleanup.skipped")
+                .description("Cleanup runs skipped because another node held the lock")
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder("token.cleanup.duration")
+                .description("Duration of token cleanup runs")
+                .register(meterRegistry);
+    }
+
+    public void cleanupExpiredTokens() {
+        long startedAt = System.nanoTime();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+
+            if (!tryLock(connection)) {
+                skippedCounter.increment();
+                logger.info("Token cleanup is running on another node, skipping");
+                return;
+            }
+
+            long deleted = 0;
+            int batches = 0;
+            long revokedDeleted = 0;
+            long invalidationsDeleted = 0;
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                int batchDeleted;
+                do {
+                    batchDeleted = deleteBatch(connection, DELETE_BATCH_SQL, now);
+                    deleted += batchDeleted;
+                    batches++;
+                } while (batchDeleted == batchSize && batches < maxBatches);
+
+                int revokedBatches = 0;
+                do {
+                    batchDeleted = deleteBatch(connection, DELETE_REVOKED_BATCH_SQL, now);
+                    revokedDeleted += batchDeleted;
+                    revokedBatches++;
+                } while (batchDeleted == batchSize && revokedBatches < maxBatches);
+
+                int invalidationBatches = 0;
+                do {
+                    batchDeleted = deleteBatch(connection, DELETE_INVALIDATIONS_BATCH_SQL, now.minus(invalidationRetention));
+                    invalidationsDeleted += batchDeleted;
+                    invalidationBatches++;
+                } while (batchDeleted == batchSize && invalidationBatches < maxBatches);
+            } finally {
+                unlock(connection);
+            }
+
+            long elapsed = System.nanoTime() - startedAt;
+            durationTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            deletedCounter.increment(deleted);
+            batchCounter.increment(batches);
+            logger.info("Deleted {} expired refresh tokens in {} batches, {} expired revocations and {} old cache invalidations ({} ms)",
+                    deleted, batches, revokedDeleted, invalidationsDeleted, elapsed / 1_000_000);
+        } catch (SQLException e) {
+            throw new RuntimeException("Token cleanup failed: " + e.getMessage(), e);
+        }
+    }
+
+    private int deleteBatch(Connection connection, String sql, LocalDateTime now) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setObject(1, now);
+            statement.setInt(2, batchSize);
+            return statement.executeUpdate();
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, CLEANUP_LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, CLEANUP_LOCK_KEY);
+            statement.executeQuery().close();
+        }
+    }
+}
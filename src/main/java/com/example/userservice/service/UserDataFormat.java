@@ -0,0 +1,7 @@
+package com.example.userservice.service;
+
+// Wire formats for bulk user import and export
+public enum UserDataFormat {
+    CSV,
+    NDJSON
+}
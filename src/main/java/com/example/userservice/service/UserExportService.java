@@ -0,0 +1,138 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.entity.Role;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Writes users straight from a JDBC cursor to the response stream as NDJSON or CSV. Rows are
+ * projected into UserResponse (no managed entities) and fetched in fetch-size chunks, so heap
+ * use stays flat however many users are exported.
+ * <p>
+ * A download lasts as long as the client takes to read it, so the cursor runs on a dedicated
+ * connection opened with the datasource settings, outside the Hikari pool, and only
+ * {@code user-export.max-concurrent} exports run at once. Slow or stalled downloads can never
+ * take connections away from logins and refreshes.
+ */
+@Service
+public class UserExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+
+    private static final int FETCH_SIZE = 1000;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${user-export.max-concurrent}")
+    private int maxConcurrent;
+
+    @Value("${user-export.retry-after}")
+    private long retryAfterSeconds;
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void init() {
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Streams the matching users to {@code output}. Throws {@link UserExportBusyException} before
+     * anything is written if the maximum number of exports is already running.
+     */
+    public long exportUsers(UserDataFormat format, Role role, Boolean active, OutputStream output) throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new UserExportBusyException("Too many exports in progress, try again later", retryAfterSeconds);
+        }
+
+        String sql = "SELECT id, username, email, first_name, last_name, role, is_active FROM users WHERE true"
+                + (role != null ? " AND role = ?" : "")
+                + (active != null ? " AND is_active = ?" : "")
+                + " ORDER BY id";
+        long rows;
+        try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+            // The Postgres driver only streams with a fetch size inside a transaction (autocommit off)
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int parameter = 1;
+                if (role != null) {
+                    statement.setString(parameter++, role.name());
+                }
+                if (active != null) {
+                    statement.setBoolean(parameter, active);
+                }
+                statement.setFetchSize(FETCH_SIZE);
+                try (ResultSet users = statement.executeQuery()) {
+                    rows = format == UserDataFormat.CSV ? writeCsv(users, output) : writeNdjson(users, output);
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new UncategorizedSQLException("User export", sql, e);
+        } finally {
+            permits.release();
+        }
+        output.flush();
+
+        logger.info("Exported {} users as {} (role={}, active={})", rows, format, role, active);
+        return rows;
+    }
+
+    private long writeCsv(ResultSet users, OutputStream output) throws IOException, SQLException {
+        CsvSchema schema = csvMapper.schemaFor(UserResponse.class).withHeader();
+        long rows = 0;
+        try (SequenceWriter writer = csvMapper.writer(schema)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(output)) {
+            for (; users.next(); rows++) {
+                writer.write(toUserResponse(users));
+            }
+        }
+        return rows;
+    }
+
+    private long writeNdjson(ResultSet users, OutputStream output) throws IOException, SQLException {
+        ObjectWriter writer = objectMapper.writerFor(UserResponse.class);
+        long rows = 0;
+        for (; users.next(); rows++) {
+            output.write(writer.writeValueAsBytes(toUserResponse(users)));
+            output.write('\n');
+        }
+        return rows;
+    }
+
+    private static UserResponse toUserResponse(ResultSet row) throws SQLException {
+        return new UserResponse(row.getLong(1), row.getString(2), row.getString(3), row.getString(4),
+                row.getString(5), row.getString(6), row.getBoolean(7));
+    }
+}
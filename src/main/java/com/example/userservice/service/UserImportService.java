@@ -0,0 +1,322 @@
+package com.example.userservice.service;
+
+import com.example.userservice.dto.RegisterRequest;
+import com.example.userservice.dto.UserImportResult;
+import com.example.userservice.dto.UserImportSummary;
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates users from a streamed CSV or NDJSON upload and streams one NDJSON result line back per
+ * input line, followed by a summary line. Rows are handled in fixed-size chunks: validation,
+ * one uniqueness query per column, parallel BCrypt and a batched insert per chunk, so memory
+ * depends on the chunk size and not on the size of the upload.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${user-import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${user-import.hashing-threads}")
+    private int hashingThreads;
+
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    private ExecutorService hashingPool;
+    private PasswordEncoder hasher;
+
+    @PostConstruct
+    void init() {
+        int poolSize = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashingPool = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Imports hash on their own pool instead of queueing behind (and crowding out) logins
+        this.hasher = passwordEncoder instanceof BoundedPasswordEncoder bounded ? bounded.getDelegate() : passwordEncoder;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    public UserImportSummary importUsers(UserDataFormat format, InputStream input, OutputStream output, boolean sendWelcomeEmail)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        UserImportSummary summary = new UserImportSummary();
+        long lineNumber = 0;
+
+        ObjectReader rowReader;
+        if (format == UserDataFormat.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                writeSummary(output, summary);
+                return summary;
+            }
+            rowReader = csvRowReader(header);
+        } else {
+            rowReader = objectMapper.readerFor(RegisterRequest.class)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        }
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            chunk.add(parse(rowReader, lineNumber, line));
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, sendWelcomeEmail, output, summary);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, sendWelcomeEmail, output, summary);
+        }
+
+        writeSummary(output, summary);
+        logger.info("User import finished: {} rows, {} created, {} invalid, {} duplicates",
+                summary.getRows(), summary.getCreated(), summary.getInvalid(), summary.getDuplicates());
+        return summary;
+    }
+
+    private ObjectReader csvRowReader(String header) throws IOException {
+        String[] columns = csvMapper.readerFor(String[].class).readValue(header);
+
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : columns) {
+            schema.addColumn(column.trim());
+        }
+        return csvMapper.readerFor(RegisterRequest.class)
+                .with(schema.build())
+                .with(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private ImportRow parse(ObjectReader rowReader, long lineNumber, String line) {
+        try {
+            return new ImportRow(lineNumber, rowReader.readValue(line));
+        } catch (IOException e) {
+            ImportRow row = new ImportRow(lineNumber, null);
+            row.reject("INVALID", "Malformed row");
+            return row;
+        }
+    }
+
+    private void processChunk(List<ImportRow> chunk, boolean sendWelcomeEmail, OutputStream output,
+                              UserImportSummary summary) throws IOException {
+        List<ImportRow> candidates = validate(chunk);
+        rejectExisting(candidates);
+
+        List<ImportRow> accepted = candidates.stream().filter(row -> row.status == null).toList();
+        hashPasswords(accepted);
+        insert(accepted, sendWelcomeEmail);
+
+        for (ImportRow row : chunk) {
+            summary.setRows(summary.getRows() + 1);
+            switch (row.status) {
+                case "CREATED" -> summary.setCreated(summary.getCreated() + 1);
+                case "DUPLICATE" -> summary.setDuplicates(summary.getDuplicates() + 1);
+                default -> summary.setInvalid(summary.getInvalid() + 1);
+            }
+
+            String username = row.request != null ? row.request.getUsername() : null;
+            writeLine(output, new UserImportResult(row.line, username, row.status, row.errors));
+        }
+        output.flush();
+    }
+
+    // Bean Validation per row, plus duplicates within the chunk itself
+    private List<ImportRow> validate(List<ImportRow> chunk) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+
+        for (ImportRow row : chunk) {
+            if (row.status != null) {
+                continue;
+            }
+
+            Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(row.request);
+            if (!violations.isEmpty()) {
+                violations.stream().map(ConstraintViolation::getMessage).sorted().forEach(message -> row.reject("INVALID", message));
+                continue;
+            }
+
+            if (!usernames.add(row.request.getUsername())) {
+                row.reject("DUPLICATE", "Username appears more than once in the upload");
+            }
+            if (!emails.add(row.request.getEmail())) {
+                row.reject("DUPLICATE", "Email appears more than once in the upload");
+            }
+            if (row.status == null) {
+                candidates.add(row);
+            }
+        }
+        return candidates;
+    }
+
+    // One query per column for the whole chunk instead of two exists* queries per row
+    private void rejectExisting(List<ImportRow> candidates) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingUsernames = userRepository.findExistingUsernames(
+                candidates.stream().map(row -> row.request.getUsername()).toList());
+        Set<String> existingEmails = userRepository.findExistingEmails(
+                candidates.stream().map(row -> row.request.getEmail()).toList());
+
+        for (ImportRow row : candidates) {
+            if (existingUsernames.contains(row.request.getUsername())) {
+                row.reject("DUPLICATE", "Username already exists");
+            }
+            if (existingEmails.contains(row.request.getEmail())) {
+                row.reject("DUPLICATE", "Email already exists");
+            }
+        }
+    }
+
+    private void hashPasswords(List<ImportRow> rows) {
+        List<CompletableFuture<Void>> hashes = rows.stream()
+                .map(row -> CompletableFuture.runAsync(
+                        () -> row.encodedPassword = hasher.encode(row.request.getPassword()), hashingPool))
+                .toList();
+        CompletableFuture.allOf(hashes.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private void insert(List<ImportRow> rows, boolean sendWelcomeEmail) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> save(rows, sendWelcomeEmail));
+            rows.forEach(row -> row.status = "CREATED");
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took a username or email after the bulk check; retry row by row
+            for (ImportRow row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> save(List.of(row), sendWelcomeEmail));
+                    row.status = "CREATED";
+                } catch (DataIntegrityViolationException rowFailure) {
+                    row.reject("DUPLICATE", "Username or email already exists");
+                }
+            }
+        }
+    }
+
+    private void save(List<ImportRow> rows, boolean sendWelcomeEmail) {
+        List<User> users = rows.stream().map(this::toUser).toList();
+        userRepository.saveAll(users);
+        userRepository.flush();
+
+        if (sendWelcomeEmail) {
+            for (User user : users) {
+                emailService.sendWelcomeEmail(user.getEmail(), user.getFirstName(), user.getLastName());
+            }
+        }
+    }
+
+    private User toUser(ImportRow row) {
+        RegisterRequest request = row.request;
+        return new User(
+                request.getUsername(),
+                request.getEmail(),
+                row.encodedPassword,
+                request.getFirstName(),
+                request.getLastName(),
+                request.getRole() != null ? request.getRole() : Role.USER
+        );
+    }
+
+    private void writeSummary(OutputStream output, UserImportSummary summary) throws IOException {
+        writeLine(output, Map.of("summary", summary));
+        output.flush();
+    }
+
+    private void writeLine(OutputStream output, Object value) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(value));
+        output.write('\n');
+    }
+
+    private static class ImportRow {
+        final long line;
+        final RegisterRequest request;
+        String status;
+        List<String> errors;
+        String encodedPassword;
+
+        ImportRow(long line, RegisterRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+
+        void reject(String status, String error) {
+            if (this.status == null) {
+                this.status = status;
+            }
+            if (errors == null) {
+                errors = new ArrayList<>();
+            }
+            errors.add(error);
+        }
+    }
+}
@@ -1,28 +1,60 @@
 package com.example.userservice.service;
 
+import com.example.userservice.cache.CacheInvalidationBus;
+import com.example.userservice.config.CacheConfig;
 import com.example.userservice.dto.*;
 import com.example.userservice.entity.RefreshToken;
 import com.example.userservice.entity.Role;
 import com.example.userservice.entity.User;
 import com.example.userservice.repository.RefreshTokenRepository;
 import com.example.userservice.repository.UserRepository;
+import com.example.userservice.security.LoginThrottle;
+import com.example.userservice.security.RevokedAccessTokens;
+import com.example.userservice.security.UserRevocationRegistry;
+import com.example.userservice.security.VerifiedTokenCache;
 import com.example.userservice.util.JwtUtil;
+import com.example.userservice.util.PageCursor;
+import com.example.userservice.util.TokenDigest;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    private static final int MIN_TRIGRAM_TERM_LENGTH = 3;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -38,8 +70,76 @@ public class UserService {
     @Autowired
     private EmailService emailService;
 
-    @Transactional
+    @Autowired
+    private UserRevocationRegistry userRevocationRegistry;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private RevokedAccessTokens revokedAccessTokens;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    // Changes made on other nodes evict here too; a node that missed too much drops both caches
+    @PostConstruct
+    void subscribeToInvalidations() {
+        invalidationBus.subscribe(CacheInvalidationBus.USERS,
+                username -> {
+                    evict(CacheConfig.USER_DETAILS_CACHE, username);
+                    evict(CacheConfig.USERS_CACHE, username);
+                },
+                () -> {
+                    clear(CacheConfig.USER_DETAILS_CACHE);
+                    clear(CacheConfig.USERS_CACHE);
+                });
+    }
+
     public UserResponse register(RegisterRequest request) {
+        return timed("register", () -> doRegister(request));
+    }
+
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        return timed("login", () -> doLogin(request, clientIp));
+    }
+
+    public TokenResponse refreshToken(RefreshTokenRequest request) {
+        return timed("refresh", () -> doRefreshToken(request));
+    }
+
+    // Tagged by outcome so throttled, rejected and failed attempts don't skew the success latencies
+    private <T> T timed(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("auth.requests")
+                    .description("Latency of login, registration and token refresh")
+                    .tag("operation", operation)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    // Not @Transactional: BCrypt runs before the transaction so no pooled connection idles while hashing
+    private UserResponse doRegister(RegisterRequest request) {
         logger.info("Registering new user with username: {}", request.getUsername());
 
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -53,43 +153,49 @@ public class UserService {
         // Use request.getRole() if provided, otherwise default to USER
         Role role = request.getRole() != null ? request.getRole() : Role.USER;
 
-        User user = new User(
-                request.getUsername(),
-                request.getEmail(),
-                passwordEncoder.encode(request.getPassword()),
-                request.getFirstName(),
-                request.getLastName(),
-                role
-        );
-
-        User savedUser = userRepository.save(user);
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
 
-        // Send welcome email
         try {
-            emailService.sendWelcomeEmail(
-                    savedUser.getEmail(),
-                    savedUser.getFirstName(),
-                    savedUser.getLastName()
-            );
-            logger.info("Welcome email sent successfully to: {}", savedUser.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send welcome email to {}: {}", savedUser.getEmail(), e.getMessage());
-            // Email xətası qeydiyyatı dayandırmasın
+            return transactionTemplate.execute(status -> {
+                User user = new User(
+                        request.getUsername(),
+                        request.getEmail(),
+                        encodedPassword,
+                        request.getFirstName(),
+                        request.getLastName(),
+                        role
+                );
+
+                User savedUser = userRepository.save(user);
+
+                // Queue welcome email in the same transaction; delivery happens in the background
+                emailService.sendWelcomeEmail(
+                        savedUser.getEmail(),
+                        savedUser.getFirstName(),
+                        savedUser.getLastName()
+                );
+
+                return mapToUserResponse(savedUser);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent registration after the exists checks above
+            throw new RuntimeException("Username or email already exists");
         }
-
-        return mapToUserResponse(savedUser);
     }
 
-    @Transactional
-    public LoginResponse login(LoginRequest request) {
-        logger.info("Login attempt for username: {}", request.getUsername());
+    // Not @Transactional: the lookup and the token insert each hold a connection only for their own statement
+    private LoginResponse doLogin(LoginRequest request, String clientIp) {
+        logger.debug("Login attempt for username: {}", request.getUsername());
 
-        User user = userRepository.findActiveUserByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("Invalid username or password"));
+        // Throttled attempts are turned away before any DB lookup or BCrypt work
+        loginThrottle.acquire(request.getUsername(), clientIp);
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        User user = userRepository.findActiveUserByUsername(request.getUsername()).orElse(null);
+        if (user == null || !passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            loginThrottle.recordFailure(request.getUsername());
             throw new RuntimeException("Invalid username or password");
         }
+        loginThrottle.recordSuccess(request.getUsername());
 
         // Generate tokens
         String accessToken = jwtUtil.generateAccessToken(user.getUsername(), user.getRole().name());
@@ -97,7 +203,7 @@ public class UserService {
 
         // Save refresh token
         RefreshToken refreshToken = new RefreshToken(
-                refreshTokenString,
+                TokenDigest.sha256(refreshTokenString),
                 user.getUsername(),
                 LocalDateTime.now().plusSeconds(jwtUtil.getRefreshTokenExpiration() / 1000)
         );
@@ -114,55 +220,110 @@ public class UserService {
         );
     }
 
-    @Transactional
-    public TokenResponse refreshToken(RefreshTokenRequest request) {
-        RefreshToken refreshToken = refreshTokenRepository.findByTokenAndIsUsedFalse(request.getRefreshToken())
-                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
-
-        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Refresh token expired");
-        }
-
-        User user = userRepository.findActiveUserByUsername(refreshToken.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Mark old token as used
-        refreshToken.setIsUsed(true);
-        refreshTokenRepository.save(refreshToken);
-
-        // Generate new tokens
-        String newAccessToken = jwtUtil.generateAccessToken(user.getUsername(), user.getRole().name());
+    // Not @Transactional: rotation is a single atomic statement, so it needs no surrounding transaction
+    private TokenResponse doRefreshToken(RefreshTokenRequest request) {
         String newRefreshTokenString = jwtUtil.generateRefreshTokenString();
+        LocalDateTime now = LocalDateTime.now();
 
-        RefreshToken newRefreshToken = new RefreshToken(
-                newRefreshTokenString,
-                user.getUsername(),
-                LocalDateTime.now().plusSeconds(jwtUtil.getRefreshTokenExpiration() / 1000)
-        );
-        refreshTokenRepository.save(newRefreshToken);
+        RefreshTokenRepository.RotatedToken rotated = refreshTokenRepository.rotateToken(
+                TokenDigest.sha256(request.getRefreshToken()),
+                TokenDigest.sha256(newRefreshTokenString),
+                now,
+                now.plusSeconds(jwtUtil.getRefreshTokenExpiration() / 1000)
+        ).orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+
+        String newAccessToken = jwtUtil.generateAccessToken(rotated.getUsername(), rotated.getRole());
 
         return new TokenResponse(newAccessToken, newRefreshTokenString);
     }
 
+    // Ends every refresh token of the user and the presented access token; other access tokens run out on their own
     @Transactional
-    public void logout(String username) {
+    public void logout(String accessToken) {
+        Claims claims = verifiedTokenCache.getVerifiedClaims(accessToken);
+        String username = claims.getSubject();
+
         refreshTokenRepository.markAllTokensAsUsedForUser(username);
+        revokedAccessTokens.revoke(username, claims);
     }
 
     // Admin Functions
-    @Transactional
+    // Reads run read-only: Hibernate switches to FlushMode.MANUAL and skips dirty checking at commit
+    @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(this::mapToUserResponse);
+        return userRepository.findAllUserResponses(pageable);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public Page<UserResponse> getUsersByRole(Role role, Pageable pageable) {
-        return userRepository.findByRole(role, pageable).map(this::mapToUserResponse);
+        return userRepository.findUserResponsesByRole(role, pageable);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public Page<UserResponse> searchUsers(String searchTerm, Pageable pageable) {
-        return userRepository.searchUsers(searchTerm, pageable).map(this::mapToUserResponse);
+        String term = searchTerm.trim();
+        String prefix = escapeLike(term.toLowerCase()) + "%";
+
+        if (term.length() < MIN_TRIGRAM_TERM_LENGTH) {
+            return userRepository.searchUsersByPrefix(prefix, pageable);
+        }
+
+        String pattern = "%" + escapeLike(term) + "%";
+        return PageableExecutionUtils.getPage(
+                userRepository.searchUsers(term, pattern, prefix, pageable),
+                pageable,
+                () -> userRepository.countSearchUsers(pattern));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> scrollAllUsers(String after, Sort sort, int size) {
+        Window<UserRepository.UserRow> users = userRepository.findBy(
+                PageCursor.toScrollPosition(after, sort, User.class), sort, Limit.of(size));
+        return toCursorPage(users, sort);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> scrollUsersByRole(Role role, String after, int size) {
+        Sort sort = Sort.by("id");
+        Window<UserRepository.UserRow> users = userRepository.findByRole(
+                role, PageCursor.toScrollPosition(after, sort, User.class), sort, Limit.of(size));
+        return toCursorPage(users, sort);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> scrollSearchUsers(String searchTerm, String after, int size) {
+        String term = searchTerm.trim();
+        String prefix = escapeLike(term.toLowerCase()) + "%";
+        String scope = "search:" + term;
+        Map<String, String> cursor = after.isEmpty() ? null : PageCursor.decode(after, scope);
+
+        try {
+            if (term.length() < MIN_TRIGRAM_TERM_LENGTH) {
+                List<UserRepository.PrefixHit> hits = userRepository.scrollSearchUsersByPrefix(
+                        prefix,
+                        cursor != null ? cursor.get("sortName") : "",
+                        cursor != null ? Long.parseLong(cursor.get("id")) : 0L,
+                        size + 1);
+                return toCursorPage(hits, size, last -> PageCursor.encode(scope, Map.of(
+                        "sortName", last.getSortName(),
+                        "id", last.getId())));
+            }
+
+            List<UserRepository.SearchHit> hits = userRepository.scrollSearchUsers(
+                    term,
+                    "%" + escapeLike(term) + "%",
+                    prefix,
+                    cursor != null ? Integer.parseInt(cursor.get("prefixRank")) : 2,
+                    cursor != null ? Float.parseFloat(cursor.get("score")) : 0f,
+                    cursor != null ? Long.parseLong(cursor.get("id")) : 0L,
+                    size + 1);
+            return toCursorPage(hits, size, last -> PageCursor.encode(scope, Map.of(
+                    "prefixRank", last.getPrefixRank(),
+                    "score", last.getScore(),
+                    "id", last.getId())));
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 
     @Transactional
@@ -175,6 +336,9 @@ public class UserService {
             throw new RuntimeException("Email already exists");
         }
 
+        boolean accessChanged = (request.getRole() != null && request.getRole() != user.getRole()) ||
+                (request.getIsActive() != null && !request.getIsActive().equals(user.getIsActive()));
+
         if (request.getEmail() != null) user.setEmail(request.getEmail());
         if (request.getFirstName() != null) user.setFirstName(request.getFirstName());
         if (request.getLastName() != null) user.setLastName(request.getLastName());
@@ -183,6 +347,11 @@ public class UserService {
 
         User updatedUser = userRepository.save(user);
 
+        evictUserCaches(updatedUser.getUsername());
+        if (accessChanged) {
+            userRevocationRegistry.revoke(updatedUser.getUsername());
+        }
+
         return mapToUserResponse(updatedUser);
     }
 
@@ -194,6 +363,8 @@ public class UserService {
         user.setIsActive(false);
         userRepository.save(user);
         refreshTokenRepository.deleteAllTokensForUser(user.getUsername());
+        evictUserCaches(user.getUsername());
+        userRevocationRegistry.revoke(user.getUsername());
     }
 
     @Transactional
@@ -203,66 +374,124 @@ public class UserService {
 
         user.setRole(Role.ADMIN);
         User updatedUser = userRepository.save(user);
-
-        // Send admin promotion email
-        try {
-            emailService.sendAdminPromotionEmail(
-                    updatedUser.getEmail(),
-                    updatedUser.getFirstName(),
-                    updatedUser.getLastName()
-            );
-            logger.info("Admin promotion email sent successfully to: {}", updatedUser.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send admin promotion email to {}: {}", updatedUser.getEmail(), e.getMessage());
-        }
+        evictUserCaches(updatedUser.getUsername());
+        userRevocationRegistry.revoke(updatedUser.getUsername());
+
+        // Queue admin promotion email
+        emailService.sendAdminPromotionEmail(
+                updatedUser.getEmail(),
+                updatedUser.getFirstName(),
+                updatedUser.getLastName()
+        );
 
         return mapToUserResponse(updatedUser);
     }
 
-    public UserResponse getUserByUsername(String username) {
-        User user = userRepository.findActiveUserByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // Bulk admin updates: one IN query to load, then batched UPDATEs at flush (hibernate.jdbc.batch_size)
+    @Transactional
+    public BulkUpdateResponse bulkDeactivate(List<Long> userIds) {
+        List<User> users = userRepository.findAllById(userIds);
+        List<User> changed = users.stream().filter(user -> Boolean.TRUE.equals(user.getIsActive())).toList();
+
+        changed.forEach(user -> user.setIsActive(false));
+        userRepository.saveAll(changed);
+
+        List<String> usernames = changed.stream().map(User::getUsername).toList();
+        if (!usernames.isEmpty()) {
+            refreshTokenRepository.deleteAllTokensForUsers(usernames);
+        }
+        for (String username : usernames) {
+            evictUserCaches(username);
+            userRevocationRegistry.revoke(username);
+        }
 
-        return mapToUserResponse(user);
+        logger.info("Bulk deactivated {} of {} requested users", changed.size(), userIds.size());
+        return bulkResult(userIds, users, changed);
     }
 
     @Transactional
-    public UserResponse updateUser(String username, RegisterRequest request) {
-        User user = userRepository.findActiveUserByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public BulkUpdateResponse bulkReactivate(List<Long> userIds) {
+        List<User> users = userRepository.findAllById(userIds);
+        List<User> changed = users.stream().filter(user -> !Boolean.TRUE.equals(user.getIsActive())).toList();
 
-        if (!user.getEmail().equals(request.getEmail()) &&
-                userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
+        changed.forEach(user -> user.setIsActive(true));
+        userRepository.saveAll(changed);
+        changed.forEach(user -> evictUserCaches(user.getUsername()));
+
+        logger.info("Bulk reactivated {} of {} requested users", changed.size(), userIds.size());
+        return bulkResult(userIds, users, changed);
+    }
+
+    @Transactional
+    public BulkUpdateResponse bulkChangeRole(List<Long> userIds, Role role) {
+        if (role == null) {
+            throw new RuntimeException("Role is required");
         }
 
-        user.setEmail(request.getEmail());
-        user.setFirstName(request.getFirstName());
-        user.setLastName(request.getLastName());
+        List<User> users = userRepository.findAllById(userIds);
+        List<User> changed = users.stream().filter(user -> user.getRole() != role).toList();
+
+        changed.forEach(user -> user.setRole(role));
+        userRepository.saveAll(changed);
+
+        for (User user : changed) {
+            evictUserCaches(user.getUsername());
+            userRevocationRegistry.revoke(user.getUsername());
 
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            if (role == Role.ADMIN) {
+                emailService.sendAdminPromotionEmail(user.getEmail(), user.getFirstName(), user.getLastName());
+            }
         }
 
-        User updatedUser = userRepository.save(user);
+        logger.info("Bulk changed role to {} for {} of {} requested users", role, changed.size(), userIds.size());
+        return bulkResult(userIds, users, changed);
+    }
 
-        // Send profile update email
-        try {
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, sync = true)
+    public UserResponse getUserByUsername(String username) {
+        return userRepository.findActiveUserResponseByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    public UserResponse updateUser(String username, RegisterRequest request) {
+        // Hash before opening the transaction, as in register()
+        String newPassword = request.getPassword() != null && !request.getPassword().isEmpty()
+                ? passwordEncoder.encode(request.getPassword())
+                : null;
+
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findActiveUserByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            if (!user.getEmail().equals(request.getEmail()) &&
+                    userRepository.existsByEmail(request.getEmail())) {
+                throw new RuntimeException("Email already exists");
+            }
+
+            user.setEmail(request.getEmail());
+            user.setFirstName(request.getFirstName());
+            user.setLastName(request.getLastName());
+
+            if (newPassword != null) {
+                user.setPassword(newPassword);
+            }
+
+            User updatedUser = userRepository.save(user);
+            evictUserCaches(username);
+
+            // Queue profile update email
             emailService.sendProfileUpdateEmail(
                     updatedUser.getEmail(),
                     updatedUser.getFirstName(),
                     updatedUser.getLastName()
             );
-            logger.info("Profile update email sent successfully to: {}", updatedUser.getEmail());
-        } catch (Exception e) {
-            logger.error("Failed to send profile update email to {}: {}", updatedUser.getEmail(), e.getMessage());
-        }
 
-        return mapToUserResponse(updatedUser);
+            return mapToUserResponse(updatedUser);
+        });
     }
 
     // Helper methods
-    private UserResponse mapToUserResponse(User user) {
+    UserResponse mapToUserResponse(User user) {
         return new UserResponse(
                 user.getId(),
                 user.getUsername(),
@@ -274,9 +503,76 @@ public class UserService {
         );
     }
 
-    // Cleanup expired tokens
-    @Transactional
-    public void cleanupExpiredTokens() {
-        refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+    private static BulkUpdateResponse bulkResult(List<Long> requestedIds, List<User> found, List<User> changed) {
+        Set<Long> foundIds = found.stream().map(User::getId).collect(Collectors.toSet());
+        List<Long> notFound = requestedIds.stream().distinct().filter(id -> !foundIds.contains(id)).toList();
+        return new BulkUpdateResponse(changed.size(), notFound);
+    }
+
+    private UserResponse toUserResponse(UserRepository.UserRow row) {
+        return new UserResponse(
+                row.getId(),
+                row.getUsername(),
+                row.getEmail(),
+                row.getFirstName(),
+                row.getLastName(),
+                row.getRole(),
+                row.getIsActive()
+        );
+    }
+
+    private CursorPage<UserResponse> toCursorPage(Window<UserRepository.UserRow> window, Sort sort) {
+        String nextCursor = window.hasNext()
+                ? PageCursor.encode(sort, (KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+        return new CursorPage<>(window.map(this::toUserResponse).getContent(), nextCursor);
+    }
+
+    // Hits are fetched with one extra row to learn whether another page exists
+    private <T extends UserRepository.UserRow> CursorPage<UserResponse> toCursorPage(
+            List<T> hits, int size, Function<T, String> cursorOf) {
+        boolean hasNext = hits.size() > size;
+        List<T> page = hasNext ? hits.subList(0, size) : hits;
+        List<UserResponse> users = page.stream().map(this::toUserResponse).toList();
+        return new CursorPage<>(users, hasNext ? cursorOf.apply(page.get(page.size() - 1)) : null);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private void evictUserCaches(String username) {
+        invalidationBus.publish(CacheInvalidationBus.USERS, username);
+
+        // Evict once the change is visible, so a concurrent load cannot re-cache the old row
+        Runnable eviction = () -> {
+            evict(CacheConfig.USER_DETAILS_CACHE, username);
+            evict(CacheConfig.USERS_CACHE, username);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private void evict(String cacheName, String username) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(username);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
     }
 }
\ No newline at end of file
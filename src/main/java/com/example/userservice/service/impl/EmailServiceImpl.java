@@ -1,13 +1,14 @@
 package com.example.userservice.service.impl;
 
+import com.example.userservice.entity.EmailOutbox;
+import com.example.userservice.repository.EmailOutboxRepository;
 import com.example.userservice.service.EmailService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class EmailServiceImpl implements EmailService {
@@ -15,10 +16,7 @@ public class EmailServiceImpl implements EmailService {
     private static final Logger log = LoggerFactory.getLogger(EmailServiceImpl.class);
 
     @Autowired
-    private JavaMailSender javaMailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private EmailOutboxRepository emailOutboxRepository;
 
     @Value("${email.template.welcome.subject}")
     private String welcomeSubject;
@@ -29,21 +27,12 @@ public class EmailServiceImpl implements EmailService {
     @Value("${email.template.admin-promotion.subject}")
     private String adminPromotionSubject;
 
+    // Messages are written to the outbox in the caller's transaction and sent by EmailOutboxDispatcher
     @Override
+    @Transactional
     public void sendEmail(String to, String subject, String body) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(body);
-
-            javaMailSender.send(message);
-            log.info("Email sent successfully to: {}", to);
-        } catch (Exception e) {
-            log.error("Failed to send email to {}: {}", to, e.getMessage());
-            throw new RuntimeException("Email sending error: " + e.getMessage());
-        }
+        emailOutboxRepository.save(new EmailOutbox(to, subject, body));
+        log.info("Email queued for: {}", to);
     }
 
     @Override
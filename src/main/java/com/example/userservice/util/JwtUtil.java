@@ -1,24 +1,32 @@
 package com.example.userservice.util;
 
+import com.example.userservice.security.JwtSigningKeys;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import java.security.SecureRandom;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtSigningKeys signingKeys;
 
     @Value("${jwt.access-token.expiration}")
     private Long accessTokenExpiration;
@@ -28,8 +36,23 @@ public class JwtUtil {
 
     private final SecureRandom secureRandom = new SecureRandom();
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private JwtParser parser;
+    private Timer signTimer;
+    private Timer parseTimer;
+
+    @PostConstruct
+    void initSigningKey() {
+        // The keys never change at runtime, so build the parser once instead of on every parse
+        this.parser = Jwts.parser()
+                .keyLocator(signingKeys)
+                .build();
+
+        this.signTimer = Timer.builder("jwt.sign")
+                .description("Time to build and sign an access token")
+                .register(meterRegistry);
+        this.parseTimer = Timer.builder("jwt.parse")
+                .description("Time to verify and parse a token's claims")
+                .register(meterRegistry);
     }
 
     public String extractUsername(String token) {
@@ -45,21 +68,19 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public Claims extractAllClaims(String token) {
+        return parseTimer.record(() -> parser.parseSignedClaims(token).getPayload());
     }
 
     public Boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
 
+    // The jti lets a single access token be revoked before it expires (see RevokedAccessTokens)
     public String generateAccessToken(String username, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role);
+        claims.put(Claims.ID, UUID.randomUUID().toString());
         return createToken(claims, username, accessTokenExpiration);
     }
 
@@ -74,13 +95,14 @@ public class JwtUtil {
     }
 
     private String createToken(Map<String, Object> claims, String subject, Long expiration) {
-        return Jwts.builder()
+        return signTimer.record(() -> Jwts.builder()
+                .header().keyId(signingKeys.activeKeyId()).and()
                 .claims(claims)
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
-                .compact();
+                .signWith(signingKeys.signingKey())
+                .compact());
     }
 
     public Boolean validateToken(String token, String username) {
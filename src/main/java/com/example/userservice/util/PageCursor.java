@@ -0,0 +1,101 @@
+package com.example.userservice.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.beans.PropertyDescriptor;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opaque "after" tokens for keyset pagination. A cursor carries the sort key values of the last
+ * row served plus the scope (sort order or search term) it was issued for, and is rejected when
+ * replayed against a different scope.
+ */
+public final class PageCursor {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final TypeReference<Map<String, Object>> CURSOR_TYPE = new TypeReference<>() {};
+
+    private PageCursor() {}
+
+    public static String encode(String scope, Map<String, ?> keys) {
+        Map<String, String> values = new LinkedHashMap<>();
+        keys.forEach((key, value) -> values.put(key, String.valueOf(value)));
+
+        Map<String, Object> cursor = Map.of("scope", scope, "keys", values);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(cursor));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, String> decode(String token, String scope) {
+        try {
+            Map<String, Object> cursor = objectMapper.readValue(Base64.getUrlDecoder().decode(token), CURSOR_TYPE);
+            if (scope.equals(cursor.get("scope")) && cursor.get("keys") instanceof Map<?, ?> keys) {
+                return (Map<String, String>) keys;
+            }
+        } catch (Exception e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    public static String encode(Sort sort, KeysetScrollPosition position) {
+        return encode(sort.toString(), position.getKeys());
+    }
+
+    /**
+     * Turns an "after" token back into a keyset position for the given sort. Values are converted
+     * to the entity's property types; an empty token means the first page.
+     */
+    public static KeysetScrollPosition toScrollPosition(String token, Sort sort, Class<?> entityType) {
+        if (token.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, String> keys = decode(token, sort.toString());
+        Set<String> expected = new HashSet<>();
+        sort.forEach(order -> expected.add(order.getProperty()));
+        expected.add("id");
+        if (!keys.keySet().equals(expected)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        Map<String, Object> typedKeys = new LinkedHashMap<>();
+        keys.forEach((property, value) -> typedKeys.put(property, convert(entityType, property, value)));
+        return ScrollPosition.forward(typedKeys);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(Class<?> entityType, String property, String value) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityType, property);
+        if (descriptor == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        Class<?> type = descriptor.getPropertyType();
+        try {
+            if (type == String.class) return value;
+            if (type == Long.class) return Long.valueOf(value);
+            if (type == Boolean.class) return Boolean.valueOf(value);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (type.isEnum()) return Enum.valueOf((Class<? extends Enum>) type, value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        throw new IllegalArgumentException("Cursor pagination is not supported for sort property: " + property);
+    }
+}
@@ -0,0 +1,17 @@
+-- Refresh tokens are stored as SHA-256 digests (bytea) instead of the raw Base64 string.
+-- Runs after Hibernate's ddl-auto update and is a no-op once the old column is gone.
+-- sha256() needs PostgreSQL 11+.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'refresh_tokens' AND column_name = 'token') THEN
+        ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash bytea;
+        UPDATE refresh_tokens SET token_hash = sha256(convert_to(token, 'UTF8')) WHERE token_hash IS NULL;
+        ALTER TABLE refresh_tokens DROP COLUMN token;
+        ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_refresh_tokens_token_hash') THEN
+        ALTER TABLE refresh_tokens ADD CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash);
+    END IF;
+END $$;
@@ -0,0 +1,2 @@
+-- Serves keyset pagination of /api/admin/users/role/{role}: WHERE role = ? AND id > ? ORDER BY id
+CREATE INDEX IF NOT EXISTS idx_users_role_id ON users (role, id);
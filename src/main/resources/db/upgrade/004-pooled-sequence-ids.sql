@@ -0,0 +1,27 @@
+-- Entities now take ids from pooled sequences (allocationSize 50) instead of IDENTITY columns.
+-- Drops the old identity/serial defaults and moves each sequence past the ids already in use.
+-- Only ever moves a sequence forward, so it is safe to run on every start.
+DO $$
+DECLARE
+    target record;
+    max_id bigint;
+    last_id bigint;
+BEGIN
+    FOR target IN
+        SELECT * FROM (VALUES ('users', 'users_seq'),
+                              ('refresh_tokens', 'refresh_tokens_seq'),
+                              ('email_outbox', 'email_outbox_seq')) AS t(table_name, sequence_name)
+    LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', target.sequence_name);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', target.table_name);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', target.table_name);
+
+        EXECUTE format('SELECT max(id) FROM %I', target.table_name) INTO max_id;
+        EXECUTE format('SELECT last_value FROM %I', target.sequence_name) INTO last_id;
+
+        -- With the pooled optimizer the next nextval (max_id + 50) hands out max_id + 1 .. max_id + 50
+        IF max_id IS NOT NULL AND max_id >= last_id THEN
+            PERFORM setval(target.sequence_name, max_id);
+        END IF;
+    END LOOP;
+END $$;
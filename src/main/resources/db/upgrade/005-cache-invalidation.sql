@@ -0,0 +1,20 @@
+-- Cross-node cache invalidation (CacheInvalidationBus). cache_version is a single-row counter bumped
+-- once per invalidating transaction: its row lock makes versions commit in order and without gaps, so
+-- a node that sees a jump knows it missed a notification. cache_invalidations is the log it resyncs
+-- from; TokenCleanupService trims it to cache-invalidation.retention.
+CREATE TABLE IF NOT EXISTS cache_version (
+    id      smallint PRIMARY KEY CHECK (id = 1),
+    version bigint   NOT NULL
+);
+
+INSERT INTO cache_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
+
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+    version    bigint       NOT NULL,
+    topic      varchar(32)  NOT NULL,
+    cache_key  varchar(255) NOT NULL,
+    created_at timestamp    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_cache_invalidations_version ON cache_invalidations (version);
+CREATE INDEX IF NOT EXISTS idx_cache_invalidations_created_at ON cache_invalidations (created_at);
@@ -0,0 +1,46 @@
+package com.example.userservice;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+/**
+ * Base for tests against a real PostgreSQL. One embedded server is started per JVM and stopped by
+ * its own shutdown hook, so every subclass points at the same URL and test classes with the same
+ * configuration share one cached Spring context; no context outlives its database.
+ * <p>
+ * Each test class starts from empty tables. The cache_version row stays, since the shared contexts'
+ * invalidation listeners track it.
+ */
+public abstract class EmbeddedPostgresTest {
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> Server.POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeAll
+    static void emptyTables(@Autowired JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("TRUNCATE users, refresh_tokens, revoked_tokens, email_outbox");
+    }
+
+    // Started on first use, by whichever test class gets there first
+    private static final class Server {
+        private static final EmbeddedPostgres POSTGRES = start();
+
+        private static EmbeddedPostgres start() {
+            try {
+                return EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.userservice.cache;
+
+import com.example.userservice.EmbeddedPostgresTest;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The application context is one node; a second bus on the same database plays another node
+@SpringBootTest
+class CacheInvalidationBusTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    private CacheInvalidationBus otherNode;
+    private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+    private final AtomicInteger flushes = new AtomicInteger();
+
+    @BeforeEach
+    void startOtherNode() throws Exception {
+        otherNode = new CacheInvalidationBus();
+        ReflectionTestUtils.setField(otherNode, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(otherNode, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(otherNode, "dataSourceProperties", dataSourceProperties);
+        ReflectionTestUtils.setField(otherNode, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(otherNode, "enabled", true);
+        ReflectionTestUtils.setField(otherNode, "channel", "cache_invalidation");
+        ReflectionTestUtils.setField(otherNode, "pollTimeout", Duration.ofMillis(100));
+        ReflectionTestUtils.setField(otherNode, "resyncInterval", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(otherNode, "reconnectBackoff", Duration.ofMillis(100));
+        ReflectionTestUtils.invokeMethod(otherNode, "initMetrics");
+        otherNode.subscribe(CacheInvalidationBus.USERS, received::add, flushes::incrementAndGet);
+        otherNode.subscribe(CacheInvalidationBus.REVOKED_TOKENS, key -> received.add("token " + key));
+        otherNode.start();
+        awaitConnected(otherNode);
+    }
+
+    @AfterEach
+    void stopOtherNode() {
+        otherNode.stop();
+    }
+
+    @Test
+    void adminChangesReachOtherNodesCoalescedPerTransaction() throws Exception {
+        User user = userRepository.save(new User("bus-user", "bus-user@example.com", "not-a-real-hash", "Bus", "User"));
+
+        userService.promoteToAdmin(user.getId());
+
+        assertEquals("bus-user", received.poll(5, TimeUnit.SECONDS));
+
+        // Two publishes of one key in one transaction arrive once
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidationBus.publish(CacheInvalidationBus.USERS, "twice");
+            invalidationBus.publish(CacheInvalidationBus.USERS, "twice");
+            invalidationBus.publish(CacheInvalidationBus.USERS, "once");
+        });
+        assertEquals("twice", received.poll(5, TimeUnit.SECONDS));
+        assertEquals("once", received.poll(5, TimeUnit.SECONDS));
+        assertNull(received.poll(300, TimeUnit.MILLISECONDS));
+
+        // Rolled back changes are never announced
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidationBus.publish(CacheInvalidationBus.USERS, "rolled-back");
+            status.setRollbackOnly();
+        });
+        invalidationBus.publish(CacheInvalidationBus.USERS, "after-rollback");
+        assertEquals("after-rollback", received.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void nodeThatMissedNotificationsCatchesUpByVersion() throws Exception {
+        otherNode.stop();
+        invalidationBus.publish(CacheInvalidationBus.USERS, "missed-1");
+        invalidationBus.publish(CacheInvalidationBus.USERS, "missed-2");
+
+        otherNode.start();
+
+        assertEquals(List.of("missed-1", "missed-2"), List.of(
+                received.poll(5, TimeUnit.SECONDS),
+                received.poll(5, TimeUnit.SECONDS)));
+        assertEquals(0, flushes.get());
+    }
+
+    @Test
+    void nodeBehindTheRetainedLogDropsEverything() throws Exception {
+        otherNode.stop();
+        invalidationBus.publish(CacheInvalidationBus.USERS, "pruned");
+        jdbcTemplate.update("DELETE FROM cache_invalidations");
+
+        otherNode.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flushes.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, flushes.get());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void logoutsSkipTheVersionCounter() throws Exception {
+        long version = jdbcTemplate.queryForObject("SELECT version FROM cache_version WHERE id = 1", Long.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidationBus.publish(CacheInvalidationBus.REVOKED_TOKENS, "jti-1:1");
+            invalidationBus.publish(CacheInvalidationBus.USERS, "mixed");
+        });
+        invalidationBus.publish(CacheInvalidationBus.REVOKED_TOKENS, "jti-2:2");
+
+        assertEquals(List.of("mixed", "token jti-1:1", "token jti-2:2"), List.of(
+                received.poll(5, TimeUnit.SECONDS),
+                received.poll(5, TimeUnit.SECONDS),
+                received.poll(5, TimeUnit.SECONDS)));
+        // Only the USERS key took a version and a log row
+        assertEquals(version + 1, jdbcTemplate.queryForObject("SELECT version FROM cache_version WHERE id = 1", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM cache_invalidations WHERE topic = ?", Long.class, CacheInvalidationBus.REVOKED_TOKENS));
+    }
+
+    // The first connect only records the current version, so wait for it before publishing
+    private static void awaitConnected(CacheInvalidationBus bus) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((long) ReflectionTestUtils.getField(bus, "lastVersion") < 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.dto.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The envelopes replaced hand-built maps; clients still see the same field names
+class ResponseEnvelopeTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final UserResponse user = new UserResponse(1L, "alice", "alice@example.com", "Alice", "Smith", "USER", true);
+
+    @Test
+    void userEnvelopeOmitsAbsentMessage() throws Exception {
+        JsonNode profile = serialize(UserEnvelope.of(user));
+        JsonNode updated = serialize(UserEnvelope.of("Profile updated successfully", user));
+
+        assertTrue(profile.get("success").asBoolean());
+        assertFalse(profile.has("message"));
+        assertEquals("alice", profile.get("user").get("username").asText());
+        assertEquals("Profile updated successfully", updated.get("message").asText());
+    }
+
+    @Test
+    void pageAndCursorEnvelopesKeepTheirFields() throws Exception {
+        JsonNode page = serialize(UserPageEnvelope.of(new PageImpl<>(List.of(user), PageRequest.of(2, 10), 41)));
+        assertEquals(2, page.get("currentPage").asInt());
+        assertEquals(41, page.get("totalItems").asLong());
+        assertEquals(5, page.get("totalPages").asInt());
+        assertEquals(1, page.get("users").size());
+
+        // The last cursor page still reports nextCursor, as null
+        JsonNode cursor = serialize(UserCursorEnvelope.of(new CursorPage<>(List.of(user), null)));
+        assertTrue(cursor.has("nextCursor"));
+        assertTrue(cursor.get("nextCursor").isNull());
+        assertFalse(cursor.get("hasNext").asBoolean());
+    }
+
+    @Test
+    void messageAndBulkEnvelopes() throws Exception {
+        JsonNode failure = serialize(MessageEnvelope.error("Username already exists"));
+        assertFalse(failure.get("success").asBoolean());
+        assertEquals("Username already exists", failure.get("message").asText());
+
+        JsonNode bulk = serialize(BulkUpdateEnvelope.of("Users deactivated successfully", new BulkUpdateResponse(2, List.of(9L))));
+        assertEquals(2, bulk.get("updatedCount").asInt());
+        assertEquals(9L, bulk.get("notFoundIds").get(0).asLong());
+    }
+
+    private JsonNode serialize(Object envelope) throws Exception {
+        return objectMapper.readTree(objectMapper.writeValueAsBytes(envelope));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.userservice.controller;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.userservice.dto.LoginRequest;
+import com.example.userservice.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserControllerLoggingTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final Logger logger = (Logger) LoggerFactory.getLogger(UserController.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private UserController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new UserController();
+        ReflectionTestUtils.setField(controller, "userService", userService);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void expectedFailureLogsOneLineWarning() {
+        when(userService.login(any(), any())).thenThrow(new RuntimeException("Invalid username or password"));
+
+        controller.login(new LoginRequest("alice", "wrong"), new MockHttpServletRequest());
+
+        ILoggingEvent event = failureEvent();
+        assertEquals(Level.WARN, event.getLevel());
+        assertNull(event.getThrowableProxy());
+    }
+
+    @Test
+    void unexpectedFailureLogsAnErrorWithStackTrace() {
+        when(userService.login(any(), any())).thenThrow(new DataAccessResourceFailureException("Connection is not available"));
+
+        controller.login(new LoginRequest("alice", "secret"), new MockHttpServletRequest());
+
+        ILoggingEvent event = failureEvent();
+        assertEquals(Level.ERROR, event.getLevel());
+        assertEquals(DataAccessResourceFailureException.class.getName(), event.getThrowableProxy().getClassName());
+    }
+
+    // DEBUG may be on when other tests configured logging first; skip the "request received" line
+    private ILoggingEvent failureEvent() {
+        return appender.list.stream()
+                .filter(event -> event.getLevel().isGreaterOrEqual(Level.WARN))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.userservice.loadtest;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Accepts every message without a network round trip; only the count is kept so long runs don't grow the heap
+public class InMemoryMailSender implements JavaMailSender {
+
+    private final Session session = Session.getInstance(new Properties());
+    private final AtomicLong sent = new AtomicLong();
+    private final Duration latency;
+
+    public InMemoryMailSender(Duration latency) {
+        this.latency = latency;
+    }
+
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) throws MailException {
+        deliver(simpleMessages.length);
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return new MimeMessage(session);
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+        try {
+            return new MimeMessage(session, contentStream);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not parse MIME message", e);
+        }
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) throws MailException {
+        deliver(mimeMessages.length);
+    }
+
+    @Override
+    public void send(MimeMessagePreparator... mimeMessagePreparators) throws MailException {
+        deliver(mimeMessagePreparators.length);
+    }
+
+    // One simulated SMTP session per call, like JavaMailSenderImpl sending a batch over one connection
+    private void deliver(int messages) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sent.addAndGet(messages);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.userservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator: each worker runs register, login, profile, refresh and logout as a fresh
+ * user, back to back, until the run ends. Latencies go into one HdrHistogram recorder per step; the
+ * warmup interval is recorded and then discarded. Being closed-loop, a stalled server slows the
+ * offered load down with it, so the percentiles understate what an open-loop client would see.
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final String PASSWORD = "loadtest-password";
+
+    public enum Step { REGISTER, LOGIN, PROFILE, REFRESH, LOGOUT }
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Step, Recorder> latencies = new EnumMap<>(Step.class);
+    private final Map<Step, LongAdder> errors = new EnumMap<>(Step.class);
+
+    public LoadGenerator(URI baseUri) {
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Step step : Step.values()) {
+            latencies.put(step, new Recorder(3));
+            errors.put(step, new LongAdder());
+        }
+    }
+
+    public Report run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long warmupEnds = System.nanoTime() + warmup.toNanos();
+        long runEnds = warmupEnds + duration.toNanos();
+
+        try {
+            for (int worker = 0; worker < concurrency; worker++) {
+                int workerId = worker;
+                workers.submit(() -> runScenarios(workerId, runEnds));
+            }
+
+            logger.info("Warming up for {} with {} workers", warmup, concurrency);
+            TimeUnit.NANOSECONDS.sleep(warmupEnds - System.nanoTime());
+            reset();
+
+            logger.info("Measuring for {}", duration);
+            TimeUnit.NANOSECONDS.sleep(runEnds - System.nanoTime());
+            return report(concurrency, duration);
+        } finally {
+            // Workers stop on their own at the deadline; let in-flight scenarios finish before the server goes away
+            workers.shutdown();
+            if (!workers.awaitTermination(60, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private void runScenarios(int workerId, long runEnds) {
+        for (long iteration = 0; System.nanoTime() < runEnds && !Thread.currentThread().isInterrupted(); iteration++) {
+            try {
+                runScenario("lt-" + runId + "-" + workerId + "-" + iteration);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.debug("Scenario failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Stops at the first failed step; the steps after it depend on its result
+    private void runScenario(String username) throws Exception {
+        Map<String, String> register = Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", PASSWORD,
+                "firstName", "Load",
+                "lastName", "Test");
+        if (call(Step.REGISTER, post("/api/auth/register", register, null), 201) == null) {
+            return;
+        }
+
+        JsonNode login = call(Step.LOGIN, post("/api/auth/login", Map.of("username", username, "password", PASSWORD), null), 200);
+        if (login == null) {
+            return;
+        }
+        String accessToken = login.path("data").path("accessToken").asText();
+        String refreshToken = login.path("data").path("refreshToken").asText();
+
+        HttpRequest profile = request("/api/users/profile", accessToken).GET().build();
+        if (call(Step.PROFILE, profile, 200) == null) {
+            return;
+        }
+
+        JsonNode refreshed = call(Step.REFRESH, post("/api/auth/refresh", Map.of("refreshToken", refreshToken), null), 200);
+        if (refreshed == null) {
+            return;
+        }
+
+        call(Step.LOGOUT, post("/api/auth/logout", Map.of(), refreshed.path("data").path("accessToken").asText()), 200);
+    }
+
+    private JsonNode call(Step step, HttpRequest request, int expectedStatus) throws Exception {
+        long startedAt = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            errors.get(step).increment();
+            throw e;
+        }
+        latencies.get(step).recordValue(System.nanoTime() - startedAt);
+
+        if (response.statusCode() != expectedStatus) {
+            errors.get(step).increment();
+            logger.debug("{} returned {}: {}", step, response.statusCode(), new String(response.body()));
+            return null;
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpRequest post(String path, Object body, String accessToken) throws Exception {
+        return request(path, accessToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, String accessToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+        if (accessToken != null) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        return builder;
+    }
+
+    private void reset() {
+        for (Step step : Step.values()) {
+            latencies.get(step).getIntervalHistogram();
+            errors.get(step).reset();
+        }
+    }
+
+    private Report report(int concurrency, Duration duration) {
+        List<StepResult> steps = new ArrayList<>();
+        for (Step step : Step.values()) {
+            Histogram histogram = latencies.get(step).getIntervalHistogram();
+            steps.add(new StepResult(
+                    step,
+                    histogram.getTotalCount(),
+                    errors.get(step).sum(),
+                    histogram.getTotalCount() / (duration.toMillis() / 1000.0),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        return new Report(concurrency, duration, steps);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    public record StepResult(Step step, long requests, long errors, double throughput,
+                             double p50Millis, double p99Millis, double p999Millis, double maxMillis) {}
+
+    public record Report(int concurrency, Duration duration, List<StepResult> steps) {
+
+        public StepResult step(Step step) {
+            return steps.stream().filter(result -> result.step() == step).findFirst().orElseThrow();
+        }
+
+        public void print(PrintStream out) {
+            out.printf("%nLoad test: %d workers for %s%n", concurrency, duration);
+            out.printf("%-10s %10s %8s %10s %10s %10s %10s %10s%n",
+                    "step", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+            for (StepResult result : steps) {
+                out.printf("%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                        result.step(), result.requests(), result.errors(), result.throughput(),
+                        result.p50Millis(), result.p99Millis(), result.p999Millis(), result.maxMillis());
+            }
+        }
+    }
+}
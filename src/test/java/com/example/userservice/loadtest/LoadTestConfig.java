@@ -0,0 +1,43 @@
+package com.example.userservice.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Replaces the two external dependencies for the loadtest profile: PostgreSQL runs embedded from the
+ * binaries bundled with zonky (no network, but it refuses to start as root) and mail goes to
+ * {@link InMemoryMailSender}. Everything else, including the Hikari settings, comes from the normal config.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedPostgres embeddedPostgres() throws IOException {
+        return EmbeddedPostgres.start();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(EmbeddedPostgres embeddedPostgres, DataSourceProperties properties) {
+        properties.setUrl(embeddedPostgres.getJdbcUrl("postgres", "postgres"));
+        properties.setUsername("postgres");
+        properties.setPassword("postgres");
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public JavaMailSender javaMailSender(@Value("${loadtest.mail.latency}") Duration latency) {
+        return new InMemoryMailSender(latency);
+    }
+}
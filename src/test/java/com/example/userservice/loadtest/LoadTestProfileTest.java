@@ -0,0 +1,38 @@
+package com.example.userservice.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The profile must come up with no external database or SMTP server and carry the whole scenario
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+class LoadTestProfileTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InMemoryMailSender mailSender;
+
+    @Test
+    void shortRunCompletesEveryStepWithoutErrors() throws Exception {
+        LoadGenerator.Report report = new LoadGenerator(URI.create("http://localhost:" + port))
+                .run(2, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        for (LoadGenerator.Step step : LoadGenerator.Step.values()) {
+            LoadGenerator.StepResult result = report.step(step);
+            assertTrue(result.requests() > 0, step + " was never measured");
+            assertEquals(0, result.errors(), step + " had errors");
+        }
+        assertTrue(mailSender.getSentCount() > 0, "welcome emails should reach the in-memory sender");
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.userservice.loadtest;
+
+import com.example.userservice.UserServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Starts the service in the loadtest profile (on a random port) and drives it from the same JVM.
+ * Arguments are Spring properties, e.g. --loadtest.concurrency=64 --loadtest.duration=2m.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .profiles("loadtest")
+                .run(args);
+
+        try {
+            Environment environment = context.getEnvironment();
+            int port = environment.getRequiredProperty("local.server.port", Integer.class);
+
+            LoadGenerator.Report report = new LoadGenerator(URI.create("http://localhost:" + port)).run(
+                    environment.getRequiredProperty("loadtest.concurrency", Integer.class),
+                    environment.getRequiredProperty("loadtest.warmup", Duration.class),
+                    environment.getRequiredProperty("loadtest.duration", Duration.class));
+
+            report.print(System.out);
+            System.out.printf("Emails delivered: %d%n", context.getBean(InMemoryMailSender.class).getSentCount());
+        } finally {
+            context.close();
+        }
+    }
+}
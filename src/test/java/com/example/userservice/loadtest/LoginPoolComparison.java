@@ -0,0 +1,108 @@
+package com.example.userservice.loadtest;
+
+import com.example.userservice.UserServiceApplication;
+import com.example.userservice.dto.LoginRequest;
+import com.example.userservice.dto.RegisterRequest;
+import com.example.userservice.service.UserService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logins/sec at a fixed Hikari pool size, once as login runs now (BCrypt between the lookup and the
+ * refresh-token insert, no connection held) and once wrapped in a transaction, which holds one
+ * connection across the hash the way the @Transactional login used to. Nothing else differs.
+ * Arguments are Spring properties, e.g. --spring.datasource.hikari.maximum-pool-size=2 --loadtest.concurrency=16.
+ */
+public class LoginPoolComparison {
+
+    private static final String PASSWORD = "loadtest-password";
+
+    public static void main(String[] args) throws Exception {
+        // System properties outrank application.yaml; command-line arguments still win over these
+        setDefault("spring.datasource.hikari.maximum-pool-size", "2");
+        // Every worker logs in as the same user over and over
+        setDefault("security.login-throttle.username.capacity", "1000000");
+        setDefault("security.login-throttle.username.refill-per-minute", "1000000");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(UserServiceApplication.class)
+                .profiles("loadtest")
+                .run(args);
+
+        try {
+            Environment environment = context.getEnvironment();
+            int concurrency = environment.getRequiredProperty("loadtest.concurrency", Integer.class);
+            Duration warmup = environment.getRequiredProperty("loadtest.warmup", Duration.class);
+            Duration duration = environment.getRequiredProperty("loadtest.duration", Duration.class);
+            int poolSize = environment.getRequiredProperty("spring.datasource.hikari.maximum-pool-size", Integer.class);
+
+            UserService userService = context.getBean(UserService.class);
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            for (int i = 0; i < concurrency; i++) {
+                String username = "pool-" + runId + "-" + i;
+                userService.register(new RegisterRequest(username, username + "@example.com", PASSWORD, "Pool", "Test"));
+            }
+
+            LoginCall outside = (username, ip) -> userService.login(new LoginRequest(username, PASSWORD), ip);
+            LoginCall inside = (username, ip) -> transactionTemplate.executeWithoutResult(
+                    status -> userService.login(new LoginRequest(username, PASSWORD), ip));
+
+            run(inside, runId, concurrency, warmup);
+            run(outside, runId, concurrency, warmup);
+            Result held = run(inside, runId, concurrency, duration);
+            Result released = run(outside, runId, concurrency, duration);
+
+            System.out.printf("%nLogins/sec with maximum-pool-size=%d, %d workers, %s each%n", poolSize, concurrency, duration);
+            System.out.printf("%-32s %10.1f %8d errors%n", "BCrypt inside the transaction", held.perSecond(), held.errors());
+            System.out.printf("%-32s %10.1f %8d errors%n", "BCrypt outside the transaction", released.perSecond(), released.errors());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    private static Result run(LoginCall login, String runId, int concurrency, Duration duration) throws InterruptedException {
+        LongAdder logins = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long endsAt = System.nanoTime() + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String username = "pool-" + runId + "-" + i;
+            String ip = "10.0.0." + i;
+            workers.submit(() -> {
+                while (System.nanoTime() < endsAt) {
+                    try {
+                        login.call(username, ip);
+                        logins.increment();
+                    } catch (RuntimeException e) {
+                        errors.increment();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+
+        return new Result(logins.sum() / (duration.toMillis() / 1000.0), errors.sum());
+    }
+
+    private interface LoginCall {
+        void call(String username, String ip);
+    }
+
+    private record Result(double perSecond, long errors) {}
+}
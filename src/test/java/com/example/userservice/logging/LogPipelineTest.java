@@ -0,0 +1,105 @@
+package com.example.userservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogPipelineTest {
+
+    private final LoggerContext context = new LoggerContext();
+
+    @BeforeEach
+    void setUpContext() {
+        // A context built by hand has no MDC adapter, which the async appender needs to snapshot events
+        context.setMDCAdapter(new LogbackMDCAdapter());
+    }
+
+    @AfterEach
+    void stopContext() {
+        context.stop();
+    }
+
+    @Test
+    void rateLimitAppliesPerLoggerAndIgnoresDisabledLevels() {
+        PerLoggerRateLimitFilter filter = new PerLoggerRateLimitFilter();
+        filter.setEventsPerSecond(3);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+
+        Logger noisy = context.getLogger("noisy");
+        Logger quiet = context.getLogger("quiet");
+        long suppressedBefore = PerLoggerRateLimitFilter.getSuppressedCount();
+
+        for (int i = 0; i < 10; i++) {
+            noisy.debug("disabled, must not spend the budget {}", i);
+        }
+        for (int i = 0; i < 10; i++) {
+            noisy.warn("event {}", i);
+        }
+        quiet.info("still allowed");
+
+        // Both loggers share the window, so this can only flake across a second boundary mid-loop
+        assertTrue(appender.list.size() >= 4 && appender.list.size() <= 7, "logged " + appender.list.size());
+        assertTrue(appender.list.stream().anyMatch(e -> e.getLoggerName().equals("quiet")));
+        assertTrue(PerLoggerRateLimitFilter.getSuppressedCount() - suppressedBefore >= 4);
+    }
+
+    @Test
+    void fullQueueDropsAndCountsInsteadOfBlocking() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AppenderBase<ILoggingEvent> stalled = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        stalled.setContext(context);
+        stalled.start();
+
+        DroppingAsyncAppender async = new DroppingAsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(4);
+        async.addAppender(stalled);
+        async.start();
+
+        Logger logger = context.getLogger("pipeline");
+        logger.setLevel(Level.INFO);
+        logger.addAppender(async);
+        long droppedBefore = DroppingAsyncAppender.getDroppedCount();
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            logger.error("event {}", i);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        release.countDown();
+
+        assertTrue(elapsedMillis < 5_000, "logging blocked for " + elapsedMillis + "ms");
+        // The worker drains up to a queue's worth before stalling and at most four more fit in the queue
+        long dropped = DroppingAsyncAppender.getDroppedCount() - droppedBefore;
+        assertTrue(dropped >= 92, "dropped " + dropped);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.userservice.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorResponsesTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ErrorResponses errorResponses;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        errorResponses = new ErrorResponses();
+        ReflectionTestUtils.setField(errorResponses, "objectMapper", objectMapper);
+        errorResponses.init();
+    }
+
+    @Test
+    void entryPointWritesTheSameUnauthorizedBodyEveryTime() throws Exception {
+        JwtAuthenticationEntryPoint entryPoint = new JwtAuthenticationEntryPoint();
+        ReflectionTestUtils.setField(entryPoint, "errorResponses", errorResponses);
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        entryPoint.commence(new MockHttpServletRequest("GET", "/api/users/profile"), first,
+                new InsufficientAuthenticationException("no token"));
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        entryPoint.commence(new MockHttpServletRequest("GET", "/api/users/other"), second,
+                new InsufficientAuthenticationException("no token"));
+
+        assertEquals(401, first.getStatus());
+        assertEquals("application/json", first.getContentType());
+        assertEquals(first.getContentAsByteArray().length, first.getContentLength());
+        assertArrayEquals(first.getContentAsByteArray(), second.getContentAsByteArray());
+
+        JsonNode body = objectMapper.readTree(first.getContentAsByteArray());
+        assertFalse(body.get("success").asBoolean());
+        assertEquals("Authentication required", body.get("message").asText());
+        assertEquals("Unauthorized", body.get("error").asText());
+    }
+
+    @Test
+    void accessDeniedHandlerWritesForbiddenBody() throws Exception {
+        JwtAccessDeniedHandler handler = new JwtAccessDeniedHandler();
+        ReflectionTestUtils.setField(handler, "errorResponses", errorResponses);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handle(new MockHttpServletRequest("GET", "/api/admin/users"), response, new AccessDeniedException("denied"));
+
+        assertEquals(403, response.getStatus());
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertFalse(body.get("success").asBoolean());
+        assertEquals("Forbidden", body.get("error").asText());
+    }
+
+    @Test
+    void tooManyRequestsBodyCarriesTheThrottleMessage() throws Exception {
+        JsonNode body = objectMapper.readTree(errorResponses.tooManyRequests());
+
+        assertFalse(body.get("success").asBoolean());
+        assertEquals(LoginThrottle.THROTTLED_MESSAGE, body.get("message").asText());
+    }
+}
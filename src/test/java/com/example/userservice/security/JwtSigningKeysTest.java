@@ -0,0 +1,169 @@
+package com.example.userservice.security;
+
+import com.example.userservice.controller.JwksController;
+import com.example.userservice.util.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JwtSigningKeysTest {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    @TempDir
+    Path keyDir;
+
+    @Test
+    void downstreamVerifiesTokensWithThePublishedKeys() throws Exception {
+        JwtSigningKeys signingKeys = signingKeys("EdDSA", "", "");
+        String token = jwtUtil(signingKeys).generateAccessToken("alice", "USER");
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(jwksController(signingKeys)).build();
+        MvcResult result = mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andReturn();
+
+        // What a consumer does with the endpoint: no shared secret, no call back per token
+        JwkSet jwks = Jwks.setParser().build().parse(result.getResponse().getContentAsString());
+        assertEquals(1, jwks.getKeys().size());
+        Jwk<?> jwk = jwks.getKeys().iterator().next();
+        assertEquals(signingKeys.activeKeyId(), jwk.getId());
+        assertEquals("EdDSA", jwk.getAlgorithm());
+
+        Claims claims = Jwts.parser().verifyWith((PublicKey) jwk.toKey()).build()
+                .parseSignedClaims(token).getPayload();
+        assertEquals("alice", claims.getSubject());
+    }
+
+    @Test
+    void retiredKeysStillVerifyAfterRotation() throws Exception {
+        writeKeyPair("2026-09", Jwts.SIG.ES256.keyPair().build());
+        writeKeyPair("2026-10", Jwts.SIG.ES256.keyPair().build());
+
+        JwtUtil before = jwtUtil(signingKeys("ES256", keyDir.toString(), "2026-09"));
+        String oldToken = before.generateAccessToken("alice", "USER");
+
+        // The old private key is gone; its public half stays until its tokens expire
+        Files.delete(keyDir.resolve("2026-09.pem"));
+        JwtSigningKeys rotated = signingKeys("ES256", keyDir.toString(), "2026-10");
+        JwtUtil after = jwtUtil(rotated);
+        String newToken = after.generateAccessToken("bob", "USER");
+
+        assertEquals("alice", after.extractUsername(oldToken));
+        assertEquals("bob", after.extractUsername(newToken));
+        assertEquals(2, Jwks.setParser().build().parse(new String(rotated.jwks())).getKeys().size());
+
+        // Once the public key is removed too, its tokens are rejected
+        Files.delete(keyDir.resolve("2026-09.pub.pem"));
+        JwtUtil pruned = jwtUtil(signingKeys("ES256", keyDir.toString(), "2026-10"));
+        assertThrows(JwtException.class, () -> pruned.extractAllClaims(oldToken));
+        assertEquals("bob", pruned.extractUsername(newToken));
+    }
+
+    @Test
+    void rejectsTokensSignedWithTheOldSecretOrAnUnknownKey() {
+        JwtUtil jwtUtil = jwtUtil(signingKeys("EdDSA", "", ""));
+
+        String hs256 = Jwts.builder().subject("mallory").expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes())).compact();
+        assertThrows(JwtException.class, () -> jwtUtil.extractAllClaims(hs256));
+
+        KeyPair foreign = Jwts.SIG.EdDSA.keyPair().build();
+        String unknownKid = Jwts.builder().header().keyId("foreign").and().subject("mallory")
+                .expiration(new Date(System.currentTimeMillis() + 60_000)).signWith(foreign.getPrivate()).compact();
+        assertThrows(JwtException.class, () -> jwtUtil.extractAllClaims(unknownKid));
+    }
+
+    @Test
+    void hs256KeepsTheSharedSecretAndPublishesNothing() {
+        JwtSigningKeys signingKeys = signingKeys("HS256", "", "");
+        JwtUtil jwtUtil = jwtUtil(signingKeys);
+
+        String token = jwtUtil.generateAccessToken("alice", "USER");
+
+        assertNull(signingKeys.activeKeyId());
+        assertEquals("alice", jwtUtil.extractUsername(token));
+        assertEquals("{\"keys\":[]}", new String(signingKeys.jwks()));
+    }
+
+    @Test
+    void asymmetricKeysWithoutAKeyDirFailStartup() {
+        JwtSigningKeys signingKeys = new JwtSigningKeys();
+        ReflectionTestUtils.setField(signingKeys, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(signingKeys, "algorithm", "ES256");
+        ReflectionTestUtils.setField(signingKeys, "keyDir", "");
+        ReflectionTestUtils.setField(signingKeys, "activeKeyId", "");
+
+        // A per-node key would only verify on the node and process that issued the token
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> ReflectionTestUtils.invokeMethod(signingKeys, "init"));
+        assertTrue(e.getMessage().contains("jwt.signing.key-dir"));
+    }
+
+    private void writeKeyPair(String kid, KeyPair keyPair) throws Exception {
+        Files.writeString(keyDir.resolve(kid + ".pub.pem"), pem("PUBLIC KEY", keyPair.getPublic()));
+        Files.writeString(keyDir.resolve(kid + ".pem"), pem("PRIVATE KEY", keyPair.getPrivate()));
+    }
+
+    private static String pem(String type, Key key) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder().encodeToString(key.getEncoded())
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static JwtSigningKeys signingKeys(String algorithm, String keyDir, String activeKeyId) {
+        JwtSigningKeys signingKeys = new JwtSigningKeys();
+        ReflectionTestUtils.setField(signingKeys, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(signingKeys, "algorithm", algorithm);
+        ReflectionTestUtils.setField(signingKeys, "keyDir", keyDir);
+        ReflectionTestUtils.setField(signingKeys, "activeKeyId", activeKeyId);
+        ReflectionTestUtils.setField(signingKeys, "generateKeys", keyDir.isEmpty());
+        ReflectionTestUtils.setField(signingKeys, "secret", SECRET);
+        ReflectionTestUtils.invokeMethod(signingKeys, "init");
+        return signingKeys;
+    }
+
+    private static JwtUtil jwtUtil(JwtSigningKeys signingKeys) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "signingKeys", signingKeys);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 900_000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtUtil, "initSigningKey");
+        return jwtUtil;
+    }
+
+    private static JwksController jwksController(JwtSigningKeys signingKeys) {
+        JwksController controller = new JwksController();
+        ReflectionTestUtils.setField(controller, "signingKeys", signingKeys);
+        ReflectionTestUtils.setField(controller, "jwksMaxAge", Duration.ofMinutes(5));
+        return controller;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginThrottle();
+        ReflectionTestUtils.setField(throttle, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(throttle, "usernameCapacity", 3);
+        ReflectionTestUtils.setField(throttle, "usernameRefillPerMinute", 6);
+        ReflectionTestUtils.setField(throttle, "ipCapacity", 5);
+        ReflectionTestUtils.setField(throttle, "ipRefillPerMinute", 60);
+        ReflectionTestUtils.setField(throttle, "failuresBeforeLockout", 2);
+        ReflectionTestUtils.setField(throttle, "baseLockout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(throttle, "maxLockout", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(throttle, "idleTimeout", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(throttle, "maxKeys", 1000L);
+        ReflectionTestUtils.setField(throttle, "ticker", (Ticker) clock::get);
+        ReflectionTestUtils.invokeMethod(throttle, "init");
+    }
+
+    @Test
+    void emptiesUsernameBucketThenRefillsOverTime() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("alice", "10.0.0." + i);
+        }
+
+        LoginThrottledException e = assertThrows(LoginThrottledException.class,
+                () -> throttle.acquire("ALICE", "10.0.0.9"));
+        assertEquals(10, e.getRetryAfterSeconds());
+
+        advance(Duration.ofSeconds(10));
+        throttle.acquire("alice", "10.0.0.9");
+    }
+
+    @Test
+    void firstAttemptIsAdmittedOnAMovingClock() {
+        ReflectionTestUtils.setField(throttle, "ticker", (Ticker) clock::incrementAndGet);
+        ReflectionTestUtils.invokeMethod(throttle, "init");
+
+        throttle.acquire("bob", "10.0.0.1");
+        throttle.recordFailure("carol");
+        throttle.acquire("carol", "10.0.0.2");
+    }
+
+    @Test
+    void callerWithAnOlderTimestampIsNotTreatedAsLockedOut() {
+        throttle.acquire("dave", "10.0.0.1");
+
+        // Another request read the clock just before the one that created the IP bucket
+        advance(Duration.ofMillis(-1));
+        throttle.acquire("erin", "10.0.0.1");
+        throttle.acquire("erin", "10.0.0.1");
+    }
+
+    @Test
+    void limitsOneIpSprayingManyUsernames() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("user" + i, "10.0.0.1");
+        }
+
+        assertThrows(LoginThrottledException.class, () -> throttle.acquire("user5", "10.0.0.1"));
+        throttle.acquire("user5", "10.0.0.2");
+    }
+
+    @Test
+    void lockoutGrowsWithConsecutiveFailuresAndSuccessResetsIt() {
+        throttle.recordFailure("bob");
+        throttle.recordFailure("bob");
+        assertEquals(30, assertThrows(LoginThrottledException.class,
+                () -> throttle.acquire("bob", "10.0.0.3")).getRetryAfterSeconds());
+
+        advance(Duration.ofSeconds(30));
+        throttle.recordFailure("bob");
+        assertEquals(60, assertThrows(LoginThrottledException.class,
+                () -> throttle.acquire("bob", "10.0.0.4")).getRetryAfterSeconds());
+
+        advance(Duration.ofSeconds(60));
+        throttle.recordFailure("bob");
+        throttle.recordFailure("bob");
+        assertEquals(120, assertThrows(LoginThrottledException.class,
+                () -> throttle.acquire("bob", "10.0.0.6")).getRetryAfterSeconds(), "capped at max-lockout");
+
+        advance(Duration.ofMinutes(2));
+        throttle.recordSuccess("bob");
+        throttle.recordFailure("bob");
+        throttle.acquire("bob", "10.0.0.8");
+    }
+
+    @Test
+    void failuresNeverLockOutASharedIp() {
+        // Typos from different users behind one proxy: each user stays under the lockout threshold
+        for (int i = 0; i < 20; i++) {
+            advance(Duration.ofSeconds(2));
+            throttle.acquire("user" + i, "10.0.0.1");
+            throttle.recordFailure("user" + i);
+        }
+
+        throttle.acquire("frank", "10.0.0.1");
+    }
+
+    @Test
+    void rejectedAttemptSpendsNothing() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("user" + i, "10.0.0.1");
+        }
+
+        // The IP is empty, so grace's attempt must not cost a username token either
+        for (int i = 0; i < 5; i++) {
+            assertThrows(LoginThrottledException.class, () -> throttle.acquire("grace", "10.0.0.1"));
+        }
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("grace", "10.0.0." + (10 + i));
+        }
+    }
+
+    @Test
+    void concurrentAttemptsNeverOverdrawBucket() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        try {
+            for (int i = 0; i < threads * 10; i++) {
+                int attempt = i;
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        throttle.acquire("carol", "10.1." + attempt / 256 + "." + attempt % 256);
+                        admitted.incrementAndGet();
+                    } catch (LoginThrottledException ignored) {
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(3, admitted.get());
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
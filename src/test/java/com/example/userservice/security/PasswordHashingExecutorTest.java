@@ -0,0 +1,61 @@
+package com.example.userservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(executor, "threads", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 4);
+        ReflectionTestUtils.setField(executor, "maxQueueWaitMillis", 100L);
+        ReflectionTestUtils.setField(executor, "hashBudgetMillis", 100L);
+        ReflectionTestUtils.setField(executor, "retryAfterSeconds", 1L);
+        ReflectionTestUtils.invokeMethod(executor, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        ReflectionTestUtils.invokeMethod(executor, "shutdown");
+    }
+
+    @Test
+    void callerStuckBehindABusyThreadIsRejectedWithinItsBudget() throws Exception {
+        CompletableFuture.runAsync(() -> executor.execute(() -> {
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        Thread.sleep(50);
+
+        // The only thread never dequeues this task, so the queue-wait check alone would never fire
+        long start = System.nanoTime();
+        PasswordHashingRejectedException e = assertThrows(PasswordHashingRejectedException.class,
+                () -> executor.execute(() -> "hash"));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertTrue(waitedMillis < 1000, "waited " + waitedMillis + " ms");
+    }
+
+    @Test
+    void returnsTheResultWhenAThreadIsFree() {
+        assertEquals("hash", executor.execute(() -> "hash"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.userservice.security;
+
+import com.example.userservice.cache.CacheInvalidationBus;
+import com.example.userservice.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RevokedAccessTokensTest {
+
+    private static final long ACCESS_TOKEN_EXPIRATION = TimeUnit.MINUTES.toMillis(15);
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private RevokedAccessTokens revokedAccessTokens;
+
+    @BeforeEach
+    void setUp() {
+        revokedAccessTokens = new RevokedAccessTokens();
+        ReflectionTestUtils.setField(revokedAccessTokens, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(revokedAccessTokens, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revokedAccessTokens, "invalidationBus", mock(CacheInvalidationBus.class));
+        ReflectionTestUtils.setField(revokedAccessTokens, "accessTokenExpiration", ACCESS_TOKEN_EXPIRATION);
+        ReflectionTestUtils.setField(revokedAccessTokens, "expectedPerWindow", 1000L);
+        ReflectionTestUtils.setField(revokedAccessTokens, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(revokedAccessTokens, "syncOverlap", Duration.ofSeconds(30));
+        ReflectionTestUtils.invokeMethod(revokedAccessTokens, "init");
+    }
+
+    @Test
+    void revokedTokenIsRejectedAndOthersAreNot() {
+        Claims revoked = claims(UUID.randomUUID().toString(), System.currentTimeMillis() + 60_000);
+        Claims other = claims(UUID.randomUUID().toString(), revoked.getExpiration().getTime());
+
+        revokedAccessTokens.revoke("alice", revoked);
+
+        verify(repository).insertIfAbsent(eq(revoked.getId()), eq("alice"), any());
+        assertTrue(revokedAccessTokens.isRevoked(revoked));
+        assertFalse(revokedAccessTokens.isRevoked(other));
+        // Tokens issued before jti existed cannot be revoked, and are not rejected
+        assertFalse(revokedAccessTokens.isRevoked(Jwts.claims().subject("alice").build()));
+    }
+
+    @Test
+    void syncIsIncrementalAndDropsExpiredEntries() {
+        LocalDateTime revokedAt = LocalDateTime.now().minusSeconds(5);
+        String soonExpired = UUID.randomUUID().toString();
+        when(repository.findRevokedSince(any(), any())).thenReturn(List.of(
+                revocation(soonExpired, LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(200)), revokedAt),
+                revocation("late", LocalDateTime.now().plusMinutes(10), revokedAt.plusSeconds(1))));
+
+        revokedAccessTokens.sync();
+
+        assertTrue(revokedAccessTokens.isRevoked(claims("late", System.currentTimeMillis() + 600_000)));
+        verify(repository).findRevokedSince(eq(LocalDateTime.of(1970, 1, 1, 0, 0)), any());
+
+        when(repository.findRevokedSince(any(), any())).thenReturn(List.of());
+        sleep(300);
+        revokedAccessTokens.sync();
+
+        // The next sync reaches back the overlap from the newest row seen
+        verify(repository).findRevokedSince(eq(revokedAt.plusSeconds(1).minusSeconds(30)), any());
+        @SuppressWarnings("unchecked")
+        Map<String, Long> expiresAt = (Map<String, Long>) ReflectionTestUtils.getField(revokedAccessTokens, "expiresAt");
+        assertEquals(Set.of("late"), expiresAt.keySet());
+    }
+
+    @Test
+    void bloomFilterStaysNearItsFalsePositiveRate() {
+        JtiBloomFilter filter = new JtiBloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+        String member = UUID.randomUUID().toString();
+        filter.add(member);
+        assertTrue(filter.mightContain(member));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000 lookups");
+    }
+
+    private static Claims claims(String jti, long expiresAt) {
+        return Jwts.claims().id(jti).subject("alice").expiration(new Date(expiresAt)).build();
+    }
+
+    private static RevokedTokenRepository.Revocation revocation(String jti, LocalDateTime expiresAt, LocalDateTime revokedAt) {
+        return new RevokedTokenRepository.Revocation() {
+            public String getJti() { return jti; }
+            public LocalDateTime getExpiresAt() { return expiresAt; }
+            public LocalDateTime getRevokedAt() { return revokedAt; }
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.userservice.security;
+
+import com.example.userservice.cache.CacheInvalidationBus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserRevocationRegistryTest {
+
+    private final CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+    private UserRevocationRegistry registry;
+    private Consumer<String> subscriber;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        registry = new UserRevocationRegistry();
+        ReflectionTestUtils.setField(registry, "invalidationBus", invalidationBus);
+        ReflectionTestUtils.setField(registry, "accessTokenExpiration", TimeUnit.MINUTES.toMillis(15));
+        ReflectionTestUtils.setField(registry, "maxSize", 1000L);
+        ReflectionTestUtils.invokeMethod(registry, "init");
+
+        ArgumentCaptor<Consumer<String>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationBus).subscribe(eq(CacheInvalidationBus.REVOKED_USERS), captor.capture());
+        subscriber = captor.getValue();
+    }
+
+    @Test
+    void publishesTheRevocationTime() {
+        long before = System.currentTimeMillis();
+        registry.revoke("alice");
+
+        ArgumentCaptor<String> key = ArgumentCaptor.forClass(String.class);
+        verify(invalidationBus).publish(eq(CacheInvalidationBus.REVOKED_USERS), key.capture());
+        String[] parts = key.getValue().split(":");
+        assertEquals("alice", parts[0]);
+        assertTrue(Long.parseLong(parts[1]) >= before);
+        assertTrue(registry.isRevoked("alice", new Date(before - 1000)));
+    }
+
+    @Test
+    void lateNotificationKeepsTheOriginalCutoff() {
+        long revokedAt = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5);
+
+        // Seen only now, e.g. by a resync after a reconnect
+        subscriber.accept("bob:" + revokedAt);
+
+        assertTrue(registry.isRevoked("bob", new Date(revokedAt - 1000)));
+        // Tokens issued after the revocation, e.g. on re-login, stay valid
+        assertFalse(registry.isRevoked("bob", new Date(revokedAt + 1000)));
+
+        // An older revocation arriving afterwards does not move the cutoff back
+        subscriber.accept("bob:" + (revokedAt - 60_000));
+        assertTrue(registry.isRevoked("bob", new Date(revokedAt - 1000)));
+    }
+
+    @Test
+    void usernamesMayContainTheSeparator() {
+        long revokedAt = System.currentTimeMillis();
+        subscriber.accept("carol:x:" + revokedAt);
+
+        assertTrue(registry.isRevoked("carol:x", new Date(revokedAt - 1000)));
+        assertFalse(registry.isRevoked("carol", new Date(revokedAt - 1000)));
+    }
+}
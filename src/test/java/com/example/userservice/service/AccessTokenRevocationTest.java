@@ -0,0 +1,92 @@
+package com.example.userservice.service;
+
+import com.example.userservice.EmbeddedPostgresTest;
+import com.example.userservice.dto.LoginRequest;
+import com.example.userservice.dto.LoginResponse;
+import com.example.userservice.dto.RegisterRequest;
+import com.example.userservice.repository.RevokedTokenRepository;
+import com.example.userservice.security.RevokedAccessTokens;
+import com.example.userservice.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sync is left to the test, so a revocation made "on another node" only shows up after sync()
+@SpringBootTest(properties = "security.token-revocation.sync-interval=3600000")
+@AutoConfigureMockMvc
+class AccessTokenRevocationTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevokedAccessTokens revokedAccessTokens;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void logoutRevokesThePresentedAccessTokenOnly() throws Exception {
+        userService.register(new RegisterRequest("revoke-user", "revoke-user@example.com", "secret-password", "Revoke", "User"));
+        String first = login("revoke-user");
+        String second = login("revoke-user");
+        assertNotEquals(jwtUtil.extractAllClaims(first).getId(), jwtUtil.extractAllClaims(second).getId());
+
+        profile(first).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer " + first))
+                .andExpect(status().isOk());
+
+        profile(first).andExpect(status().isUnauthorized());
+        profile(second).andExpect(status().isOk());
+        mockMvc.perform(post("/api/auth/logout")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void revocationsFromOtherNodesArriveWithTheNextSync() throws Exception {
+        userService.register(new RegisterRequest("remote-user", "remote-user@example.com", "secret-password", "Remote", "User"));
+        String token = login("remote-user");
+        profile(token).andExpect(status().isOk());
+
+        Claims claims = jwtUtil.extractAllClaims(token);
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        transactionTemplate.executeWithoutResult(status ->
+                revokedTokenRepository.insertIfAbsent(claims.getId(), "remote-user", expiresAt));
+
+        profile(token).andExpect(status().isOk());
+
+        revokedAccessTokens.sync();
+        profile(token).andExpect(status().isUnauthorized());
+    }
+
+    private String login(String username) {
+        LoginResponse login = userService.login(new LoginRequest(username, "secret-password"), "10.0.0.1");
+        return login.getAccessToken();
+    }
+
+    private ResultActions profile(String accessToken) throws Exception {
+        return mockMvc.perform(get("/api/users/profile").header("Authorization", "Bearer " + accessToken));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.userservice.service;
+
+import com.example.userservice.EmbeddedPostgresTest;
+import com.example.userservice.dto.LoginRequest;
+import com.example.userservice.dto.LoginResponse;
+import com.example.userservice.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "security.metrics-scrape.password=scrape-secret")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class AuthMetricsTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void authHotPathsAreExportedToPrometheus() throws Exception {
+        userService.register(new RegisterRequest("metrics-user", "metrics-user@example.com", "secret-password", "Metrics", "User"));
+        LoginResponse login = userService.login(new LoginRequest("metrics-user", "secret-password"), "10.0.0.1");
+        assertThrows(RuntimeException.class,
+                () -> userService.login(new LoginRequest("metrics-user", "wrong-password"), "10.0.0.1"));
+
+        mockMvc.perform(get("/api/users/profile").header("Authorization", "Bearer " + login.getAccessToken()));
+
+        // Only the scrape credential gets in; neither anonymous callers nor ordinary users do
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + login.getAccessToken()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "wrong-secret")))
+                .andExpect(status().isUnauthorized());
+        // Health stays public; its status depends on the test's mail server, so only check it isn't refused
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(result -> assertNotEquals(401, result.getResponse().getStatus()));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").with(httpBasic("prometheus", "scrape-secret")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertContains(scrape, "auth_requests_seconds_bucket{application=\"UserService\",exception=\"none\",operation=\"login\"");
+        assertContains(scrape, "auth_requests_seconds_count{application=\"UserService\",exception=\"RuntimeException\",operation=\"login\"");
+        assertContains(scrape, "auth_requests_seconds{application=\"UserService\",exception=\"none\",operation=\"register\",quantile=\"0.99\"");
+        assertContains(scrape, "password_hashing_duration_seconds_count{application=\"UserService\",operation=\"matches\"");
+        assertContains(scrape, "jwt_sign_seconds_count");
+        assertContains(scrape, "jwt_parse_seconds_count");
+        assertContains(scrape, "auth_filter_seconds_count{application=\"UserService\",outcome=\"authenticated\"");
+        assertContains(scrape, "spring_data_repository_invocations_seconds_bucket");
+    }
+
+    private static void assertContains(String scrape, String series) {
+        assertTrue(scrape.contains(series), "missing series " + series);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.userservice.service;
+
+import com.example.userservice.EmbeddedPostgresTest;
+import com.example.userservice.dto.BulkUpdateResponse;
+import com.example.userservice.entity.RefreshToken;
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.EmailOutboxRepository;
+import com.example.userservice.repository.RefreshTokenRepository;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.TokenDigest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Statistics are shared with every thread, so the scheduled pollers stay off while statements are counted
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "scheduling.enabled=false"
+})
+class BulkUserWriteTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void insertsGoOutInBatches() {
+        List<User> users = newUsers("batch", 120);
+
+        statistics.clear();
+        userRepository.saveAll(users);
+
+        // 120 rows at batch_size 50: three INSERT batches plus three pooled sequence calls
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(120, users.stream().map(User::getId).distinct().count());
+    }
+
+    @Test
+    void bulkDeactivateUpdatesInBatchesAndRevokesTokens() {
+        List<User> users = userRepository.saveAll(newUsers("deactivate", 60));
+        refreshTokenRepository.saveAll(users.stream()
+                .map(user -> new RefreshToken(TokenDigest.sha256("token-" + user.getUsername()), user.getUsername(),
+                        LocalDateTime.now().plusDays(1)))
+                .toList());
+        List<Long> ids = new ArrayList<>(users.stream().map(User::getId).toList());
+        ids.add(-1L);
+
+        statistics.clear();
+        BulkUpdateResponse result = userService.bulkDeactivate(ids);
+
+        assertEquals(60, result.getUpdatedCount());
+        assertEquals(List.of(-1L), result.getNotFoundIds());
+        // One IN select, two UPDATE batches, one token DELETE
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "expected batched updates, got " + statistics.getPrepareStatementCount() + " statements");
+        assertTrue(userRepository.findAllById(ids).stream().noneMatch(User::getIsActive));
+        assertTrue(refreshTokenRepository.findAll().stream()
+                .noneMatch(token -> token.getUsername().startsWith("deactivate")));
+
+        BulkUpdateResponse reactivated = userService.bulkReactivate(ids.subList(0, 10));
+        assertEquals(10, reactivated.getUpdatedCount());
+        assertEquals(10, userRepository.findAllById(ids).stream().filter(User::getIsActive).count());
+    }
+
+    @Test
+    void bulkPromotionQueuesOneEmailPerChangedUser() {
+        List<User> users = userRepository.saveAll(newUsers("promote", 5));
+        userService.promoteToAdmin(users.get(0).getId());
+        long queuedBefore = emailOutboxRepository.count();
+
+        BulkUpdateResponse result = userService.bulkChangeRole(users.stream().map(User::getId).toList(), Role.ADMIN);
+
+        assertEquals(4, result.getUpdatedCount());
+        assertEquals(queuedBefore + 4, emailOutboxRepository.count());
+        assertTrue(userRepository.findAllById(users.stream().map(User::getId).toList()).stream()
+                .allMatch(user -> user.getRole() == Role.ADMIN));
+        assertThrows(RuntimeException.class, () -> userService.bulkChangeRole(List.of(users.get(0).getId()), null));
+    }
+
+    private static List<User> newUsers(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new User(prefix + i, prefix + i + "@example.com", "not-a-real-hash", "First", "Last"))
+                .toList();
+    }
+}
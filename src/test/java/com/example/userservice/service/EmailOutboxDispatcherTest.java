@@ -0,0 +1,180 @@
+package com.example.userservice.service;
+
+import com.example.userservice.entity.EmailOutbox;
+import com.example.userservice.entity.EmailStatus;
+import com.example.userservice.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessagePreparator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+    private final Map<Long, EmailOutbox> outbox = new LinkedHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeMailSender mailSender = new FakeMailSender();
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+        when(repository.lockDueMessages(any(), anyInt())).thenAnswer(invocation -> {
+            LocalDateTime now = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return outbox.values().stream()
+                    .filter(m -> m.getStatus() == EmailStatus.PENDING && !m.getNextAttemptAt().isAfter(now))
+                    .limit(limit)
+                    .toList();
+        });
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<EmailOutbox> saved = new ArrayList<>();
+            ((Iterable<EmailOutbox>) invocation.getArgument(0)).forEach(saved::add);
+            return saved;
+        });
+        when(repository.findAllById(any())).thenAnswer(invocation -> {
+            List<EmailOutbox> found = new ArrayList<>();
+            ((Iterable<Long>) invocation.getArgument(0)).forEach(id -> found.add(outbox.get(id)));
+            return found;
+        });
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+        dispatcher = new EmailOutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "emailOutboxRepository", repository);
+        ReflectionTestUtils.setField(dispatcher, "javaMailSender", mailSender);
+        ReflectionTestUtils.setField(dispatcher, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "noreply@example.com");
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 2);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(dispatcher, "maxBackoff", Duration.ofHours(1));
+        ReflectionTestUtils.setField(dispatcher, "lease", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void sendsWholeBatchOverOneConnection() {
+        enqueue("a@example.com");
+        enqueue("b@example.com");
+        enqueue("c@example.com");
+
+        assertEquals(3, dispatcher.dispatchBatch());
+
+        assertEquals(1, mailSender.connections);
+        assertEquals(3, mailSender.delivered.size());
+        assertTrue(outbox.values().stream().allMatch(m -> m.getStatus() == EmailStatus.SENT));
+    }
+
+    @Test
+    void retriesFailedMessageWithBackoffThenDeadLetters() {
+        EmailOutbox ok = enqueue("ok@example.com");
+        EmailOutbox bad = enqueue("bad@example.com");
+        mailSender.rejectedRecipients.add("bad@example.com");
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(EmailStatus.SENT, ok.getStatus());
+        assertEquals(EmailStatus.PENDING, bad.getStatus());
+        assertEquals(1, meterRegistry.counter("email.outbox.sent").count());
+        assertEquals(1, meterRegistry.counter("email.outbox.failed").count());
+        assertEquals(1, bad.getAttempts());
+        assertTrue(bad.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+        assertEquals(0, dispatcher.dispatchBatch(), "message in backoff must not be picked up again");
+
+        bad.setNextAttemptAt(LocalDateTime.now());
+        dispatcher.dispatchBatch();
+
+        assertEquals(EmailStatus.DEAD, bad.getStatus());
+        assertEquals(2, bad.getAttempts());
+        assertNotNull(bad.getLastError());
+    }
+
+    @Test
+    void connectionFailureFailsWholeBatch() {
+        EmailOutbox message = enqueue("a@example.com");
+        mailSender.down = true;
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(EmailStatus.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertTrue(mailSender.delivered.isEmpty());
+    }
+
+    private EmailOutbox enqueue(String recipient) {
+        EmailOutbox message = new EmailOutbox(recipient, "Subject", "Body");
+        message.setId((long) outbox.size() + 1);
+        outbox.put(message.getId(), message);
+        return message;
+    }
+
+    // In-process stand-in for an SMTP server, mirroring JavaMailSenderImpl's batch semantics
+    private static class FakeMailSender implements JavaMailSender {
+
+        final List<SimpleMailMessage> delivered = new ArrayList<>();
+        final Set<String> rejectedRecipients = new HashSet<>();
+        int connections;
+        boolean down;
+
+        @Override
+        public void send(SimpleMailMessage... messages) throws MailException {
+            if (down) {
+                throw new MailSendException("Connection refused");
+            }
+            connections++;
+
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            for (SimpleMailMessage message : messages) {
+                if (rejectedRecipients.contains(message.getTo()[0])) {
+                    failed.put(message, new RuntimeException("550 mailbox unavailable"));
+                } else {
+                    delivered.add(message);
+                }
+            }
+            if (!failed.isEmpty()) {
+                throw new MailSendException(failed);
+            }
+        }
+
+        @Override
+        public MimeMessage createMimeMessage() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MimeMessage createMimeMessage(java.io.InputStream contentStream) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(MimeMessagePreparator... mimeMessagePreparators) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.userservice.service;
+
+import com.example.userservice.EmbeddedPostgresTest;
+import com.example.userservice.dto.LoginRequest;
+import com.example.userservice.dto.RegisterRequest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// With a small pool, a connection held across BCrypt caps logins/sec at pool size / hash time
+// (see LoginPoolComparison for the throughput side). Login and register must hash with none checked out.
+@SpringBootTest
+class LoginConnectionHoldTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @SpyBean
+    private PasswordEncoder passwordEncoder;
+
+    private final List<Integer> activeWhileHashing = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void recordActiveConnections() {
+        doAnswer(invocation -> {
+            activeWhileHashing.add(dataSource.getHikariPoolMXBean().getActiveConnections());
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).matches(any(), any());
+        doAnswer(invocation -> {
+            activeWhileHashing.add(dataSource.getHikariPoolMXBean().getActiveConnections());
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).encode(any());
+    }
+
+    @Test
+    void registerAndLoginHashWithoutHoldingAConnection() {
+        userService.register(new RegisterRequest("pool-free", "pool-free@example.com", "secret-password", "Pool", "Free"));
+        userService.login(new LoginRequest("pool-free", "secret-password"), "10.0.0.1");
+
+        assertEquals(List.of(0, 0), activeWhileHashing);
+    }
+
+    @Test
+    void transactionalLoginHoldsAConnectionAcrossTheHash() {
+        userService.register(new RegisterRequest("pool-held", "pool-held@example.com", "secret-password", "Pool", "Held"));
+        activeWhileHashing.clear();
+
+        // The shape login had before: the lookup's connection stays checked out until commit
+        transactionTemplate.executeWithoutResult(
+                status -> userService.login(new LoginRequest("pool-held", "secret-password"), "10.0.0.2"));
+
+        assertEquals(List.of(1), activeWhileHashing);
+    }
+}
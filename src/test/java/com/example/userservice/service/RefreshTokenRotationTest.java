@@ -0,0 +1,88 @@
+package com.example.userservice.service;
+
+import com.example.userservice.EmbeddedPostgresTest;
+import com.example.userservice.dto.RefreshTokenRequest;
+import com.example.userservice.dto.TokenResponse;
+import com.example.userservice.entity.RefreshToken;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.RefreshTokenRepository;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.util.TokenDigest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class RefreshTokenRotationTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void concurrentRefreshesWithSameTokenRotateExactlyOnce() throws Exception {
+        String username = "rotation-user";
+        userRepository.save(new User(username, username + "@example.com", "not-a-real-hash", "Rotation", "User"));
+        String token = "refresh-token-under-test";
+        refreshTokenRepository.save(new RefreshToken(TokenDigest.sha256(token), username, LocalDateTime.now().plusDays(1)));
+
+        int attempts = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<TokenResponse>> results = IntStream.range(0, attempts)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return userService.refreshToken(new RefreshTokenRequest(token));
+                    }))
+                    .toList();
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<TokenResponse> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertEquals("Invalid refresh token", e.getCause().getMessage());
+                }
+            }
+
+            assertEquals(1, succeeded);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<RefreshToken> tokens = refreshTokenRepository.findAll().stream()
+                .filter(t -> t.getUsername().equals(username))
+                .toList();
+        assertEquals(2, tokens.size());
+        assertEquals(1, tokens.stream().filter(RefreshToken::getIsUsed).count());
+    }
+
+    @Test
+    void usedTokenCannotBeRotatedAgain() {
+        String username = "replay-user";
+        userRepository.save(new User(username, username + "@example.com", "not-a-real-hash", "Replay", "User"));
+        String token = "replayed-refresh-token";
+        refreshTokenRepository.save(new RefreshToken(TokenDigest.sha256(token), username, LocalDateTime.now().plusDays(1)));
+
+        TokenResponse rotated = userService.refreshToken(new RefreshTokenRequest(token));
+
+        assertThrows(RuntimeException.class, () -> userService.refreshToken(new RefreshTokenRequest(token)));
+        userService.refreshToken(new RefreshTokenRequest(rotated.getRefreshToken()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.userservice.service;
+
+import com.example.userservice.EmbeddedPostgresTest;
+import com.example.userservice.dto.CursorPage;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserCursorPaginationTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void seedUsers() {
+        if (userRepository.count() > 0) {
+            return;
+        }
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            // Duplicate last names force the id tie-breaker when sorting by lastName
+            User user = new User("pager" + i, "pager" + i + "@example.com", "not-a-real-hash",
+                    "First" + i, "Family" + (i % 4), i % 3 == 0 ? Role.ADMIN : Role.USER);
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+    }
+
+    @Test
+    void scrollsAllUsersInSortOrderWithoutGapsOrDuplicates() {
+        Sort sort = Sort.by("lastName").descending();
+        List<UserResponse> scrolled = scrollAll(after -> userService.scrollAllUsers(after, sort, 5));
+
+        List<UserResponse> expected = userRepository.findAll().stream()
+                .sorted(Comparator.comparing(User::getLastName).reversed().thenComparing(User::getId))
+                .map(user -> userService.getUserByUsername(user.getUsername()))
+                .toList();
+        assertEquals(expected, scrolled);
+    }
+
+    @Test
+    void scrollsUsersByRole() {
+        List<UserResponse> admins = scrollAll(after -> userService.scrollUsersByRole(Role.ADMIN, after, 3));
+
+        assertEquals(8, admins.size());
+        assertTrue(admins.stream().allMatch(user -> user.getRole().equals("ADMIN")));
+        assertEquals(admins.stream().map(UserResponse::getId).sorted().toList(),
+                admins.stream().map(UserResponse::getId).toList());
+    }
+
+    @Test
+    void scrollsSearchResultsForTrigramAndPrefixTerms() {
+        List<UserResponse> trigram = scrollAll(after -> userService.scrollSearchUsers("pager1", after, 4));
+        assertEquals(11, trigram.size());
+        assertEquals(11, trigram.stream().map(UserResponse::getId).distinct().count());
+        assertEquals("pager1", trigram.get(0).getUsername());
+
+        List<UserResponse> prefix = scrollAll(after -> userService.scrollSearchUsers("pa", after, 4));
+        assertEquals(23, prefix.size());
+        assertEquals(23, prefix.stream().map(UserResponse::getId).distinct().count());
+    }
+
+    @Test
+    void offsetSearchMatchesCursorSearch() {
+        Page<UserResponse> page = userService.searchUsers("pager1", PageRequest.of(0, 4));
+        List<UserResponse> scrolled = scrollAll(after -> userService.scrollSearchUsers("pager1", after, 4));
+
+        assertEquals(11, page.getTotalElements());
+        assertEquals(scrolled.subList(0, 4), page.getContent());
+        assertEquals(23, userService.searchUsers("pa", PageRequest.of(1, 10)).getTotalElements());
+    }
+
+    @Test
+    void rejectsForeignAndTamperedCursors() {
+        CursorPage<UserResponse> page = userService.scrollAllUsers("", Sort.by("username"), 5);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.scrollAllUsers(page.getNextCursor(), Sort.by("email"), 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.scrollSearchUsers("pager", page.getNextCursor(), 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.scrollAllUsers("not-a-cursor", Sort.by("username"), 5));
+    }
+
+    private static List<UserResponse> scrollAll(Function<String, CursorPage<UserResponse>> fetch) {
+        List<UserResponse> all = new ArrayList<>();
+        String after = "";
+        while (after != null) {
+            CursorPage<UserResponse> page = fetch.apply(after);
+            all.addAll(page.getItems());
+            after = page.getNextCursor();
+        }
+        return all;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.userservice.service;
+
+import com.example.userservice.EmbeddedPostgresTest;
+import com.example.userservice.entity.Role;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "user-export.max-concurrent=2"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserExportServiceTest extends EmbeddedPostgresTest {
+
+    private static final int USERS = 1_000_000;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Every 10th user is an admin and every 7th is deactivated
+    @BeforeAll
+    void seedUsers() {
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, password, first_name, last_name, role, is_active, created_at, updated_at)
+                SELECT nextval('users_seq'), 'export_' || g, 'export_' || g || '@example.com', 'not-a-real-hash',
+                       'First' || g, 'Last' || g,
+                       CASE WHEN g % 10 = 0 THEN 'ADMIN' ELSE 'USER' END,
+                       g % 7 <> 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, USERS);
+    }
+
+    @Test
+    void exportOfOneMillionUsersKeepsHeapFlat() throws IOException {
+        HeapSamplingOutputStream output = new HeapSamplingOutputStream(16 * 1024 * 1024);
+
+        long rows = userExportService.exportUsers(UserDataFormat.NDJSON, null, null, output);
+
+        assertEquals(USERS, rows);
+        assertEquals(USERS, output.lines);
+        assertTrue(output.samples.size() > 5, "expected several heap samples, got " + output.samples.size());
+
+        // Materialising 1M UserResponse objects would take hundreds of MB; a cursor needs a fetch window
+        long growth = Collections.max(output.samples) - output.samples.get(0);
+        assertTrue(growth < 32 * 1024 * 1024, "heap grew by " + growth / 1024 + " KB during the export");
+    }
+
+    @Test
+    void exportAppliesRoleAndActiveFilters() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = userExportService.exportUsers(UserDataFormat.NDJSON, Role.ADMIN, false, output);
+
+        // Multiples of 70 up to 1M
+        assertEquals(USERS / 70, rows);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(rows, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("export_70", first.get("username").asText());
+        assertEquals("ADMIN", first.get("role").asText());
+        assertFalse(first.get("isActive").asBoolean());
+        assertNull(first.get("password"));
+    }
+
+    @Test
+    void csvExportStartsWithHeader() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = userExportService.exportUsers(UserDataFormat.CSV, Role.ADMIN, false, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(rows + 1, lines.size());
+        assertTrue(lines.get(0).contains("username"), lines.get(0));
+        assertTrue(lines.get(1).contains("export_70"), lines.get(1));
+    }
+
+    @Test
+    void stalledDownloadsHoldNoPooledConnectionAndAreCapped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StalledOutputStream first = new StalledOutputStream(release);
+        StalledOutputStream second = new StalledOutputStream(release);
+        CompletableFuture<Long> firstExport = CompletableFuture.supplyAsync(() -> export(first));
+        CompletableFuture<Long> secondExport = CompletableFuture.supplyAsync(() -> export(second));
+        try {
+            assertTrue(first.writing.await(30, TimeUnit.SECONDS));
+            assertTrue(second.writing.await(30, TimeUnit.SECONDS));
+
+            // Both cursors are open on their own connections; the pool is untouched
+            assertEquals(0, dataSource.getHikariPoolMXBean().getActiveConnections());
+            UserExportBusyException busy = assertThrows(UserExportBusyException.class,
+                    () -> userExportService.exportUsers(UserDataFormat.NDJSON, Role.ADMIN, false, new ByteArrayOutputStream()));
+            assertTrue(busy.getRetryAfterSeconds() > 0);
+        } finally {
+            release.countDown();
+        }
+        assertEquals(USERS / 70, firstExport.get(30, TimeUnit.SECONDS));
+        assertEquals(USERS / 70, secondExport.get(30, TimeUnit.SECONDS));
+
+        // Permits are returned once the downloads finish
+        assertEquals(USERS / 70, userExportService.exportUsers(UserDataFormat.NDJSON, Role.ADMIN, false, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void unknownFormatIsRejected() throws Exception {
+        mockMvc.perform(get("/api/admin/users/export").param("format", "xml").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long export(OutputStream output) {
+        try {
+            return userExportService.exportUsers(UserDataFormat.NDJSON, Role.ADMIN, false, output);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Discards the export, counting lines and sampling live heap every few MB written
+    private static class HeapSamplingOutputStream extends OutputStream {
+        private final long sampleEvery;
+        private final List<Long> samples = new ArrayList<>();
+        private long written;
+        private long lines;
+
+        HeapSamplingOutputStream(long sampleEvery) {
+            this.sampleEvery = sampleEvery;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+            if (++written % sampleEvery == 0) {
+                System.gc();
+                Runtime runtime = Runtime.getRuntime();
+                samples.add(runtime.totalMemory() - runtime.freeMemory());
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+
+    // A client that stops reading: the first write blocks until released
+    private static class StalledOutputStream extends OutputStream {
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        StalledOutputStream(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+}
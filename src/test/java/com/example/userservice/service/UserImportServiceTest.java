@@ -0,0 +1,105 @@
+package com.example.userservice.service;
+
+import com.example.userservice.EmbeddedPostgresTest;
+import com.example.userservice.dto.UserImportSummary;
+import com.example.userservice.entity.Role;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A chunk size of 2 makes even these small uploads span several chunks
+@SpringBootTest(properties = "user-import.chunk-size=2")
+class UserImportServiceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void importsCsvAndReportsEveryRow() throws IOException {
+        userRepository.save(new User("csv-existing", "csv-existing@example.com", "not-a-real-hash", "Existing", "User"));
+
+        String csv = """
+                username,email,password,firstName,lastName,role
+                csv-alice,csv-alice@example.com,secret-1,Alice,Smith,
+                csv-bob,not-an-email,secret-2,Bob,Jones,
+                csv-existing,csv-new@example.com,secret-3,Eve,Old,
+
+                csv-carol,csv-carol@example.com,secret-4,Carol,White,ADMIN
+                csv-alice,csv-alice2@example.com,secret-5,Alice,Again,
+                csv-dave,"unterminated
+                """;
+
+        List<JsonNode> lines = runImport(UserDataFormat.CSV, csv);
+
+        assertEquals(List.of("CREATED", "INVALID", "DUPLICATE", "CREATED", "DUPLICATE", "INVALID"),
+                lines.subList(0, 6).stream().map(line -> line.get("status").asText()).toList());
+        assertEquals(List.of(2, 3, 4, 6, 7, 8),
+                lines.subList(0, 6).stream().map(line -> line.get("line").asInt()).toList());
+        assertEquals("Email should be valid", lines.get(1).get("errors").get(0).asText());
+        assertEquals("Username already exists", lines.get(2).get("errors").get(0).asText());
+
+        JsonNode summary = lines.get(6).get("summary");
+        assertEquals(6, summary.get("rows").asInt());
+        assertEquals(2, summary.get("created").asInt());
+        assertEquals(2, summary.get("invalid").asInt());
+        assertEquals(2, summary.get("duplicates").asInt());
+
+        User alice = userRepository.findActiveUserByUsername("csv-alice").orElseThrow();
+        assertTrue(passwordEncoder.matches("secret-1", alice.getPassword()));
+        assertEquals(Role.ADMIN, userRepository.findActiveUserByUsername("csv-carol").orElseThrow().getRole());
+    }
+
+    @Test
+    void importsNdjson() throws IOException {
+        String ndjson = """
+                {"username":"nd-one","email":"nd-one@example.com","password":"secret-1","firstName":"One","lastName":"Nd"}
+                {"username":"nd-two","email":"nd-one@example.com","password":"secret-2","firstName":"Two","lastName":"Nd"}
+                {"username":"nd-three",
+                {"username":"nd-four","email":"nd-four@example.com","password":"short","firstName":"Four","lastName":"Nd"}
+                """;
+
+        List<JsonNode> lines = runImport(UserDataFormat.NDJSON, ndjson);
+
+        assertEquals(List.of("CREATED", "DUPLICATE", "INVALID", "INVALID"),
+                lines.subList(0, 4).stream().map(line -> line.get("status").asText()).toList());
+        assertEquals("Email appears more than once in the upload", lines.get(1).get("errors").get(0).asText());
+        assertTrue(userRepository.existsByUsername("nd-one"));
+        assertFalse(userRepository.existsByUsername("nd-two"));
+    }
+
+    private List<JsonNode> runImport(UserDataFormat format, String body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        UserImportSummary summary = userImportService.importUsers(
+                format, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output, false);
+        assertNotNull(summary);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.userservice.service;
+
+import com.example.userservice.EmbeddedPostgresTest;
+import com.example.userservice.dto.UserResponse;
+import com.example.userservice.entity.User;
+import com.example.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserSearchTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private UserService userService;
+
+    @BeforeAll
+    static void seed(@Autowired UserRepository userRepository) {
+        userRepository.saveAll(IntStream.range(0, 11)
+                .mapToObj(i -> new User("finder" + i, "finder" + i + "@example.com", "not-a-real-hash", "Find", "Er"))
+                .toList());
+        userRepository.save(new User("bystander", "bystander@example.com", "not-a-real-hash", "Other", "Person"));
+    }
+
+    @Test
+    void fullFirstPageRunsTheCountQuery() {
+        // A full first page can't tell the total by itself, so the separate count query has to run
+        Page<UserResponse> page = userService.searchUsers("finder", PageRequest.of(0, 4));
+
+        assertEquals(4, page.getContent().size());
+        assertEquals(11, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertTrue(page.getContent().stream().allMatch(user -> user.getUsername().startsWith("finder")));
+    }
+
+    @Test
+    void countsEscapedAndShortTerms() {
+        assertEquals(11, userService.searchUsers("FINDER", PageRequest.of(2, 4)).getTotalElements());
+        assertEquals(0, userService.searchUsers("find%", PageRequest.of(0, 4)).getTotalElements());
+        assertEquals(11, userService.searchUsers("fi", PageRequest.of(0, 4)).getTotalElements());
+    }
+}
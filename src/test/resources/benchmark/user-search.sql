@@ -0,0 +1,77 @@
+-- Admin user search benchmark at 1M users.
+--
+-- Run against a scratch database (never production):
+--   psql -d userservice_bench -f src/test/resources/benchmark/user-search.sql
+--
+-- Loads 1M synthetic users into a standalone copy of the users table, then compares
+-- the old unindexed LIKE search with the indexed search from UserRepository.
+\timing on
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP TABLE IF EXISTS users_search_bench;
+CREATE TABLE users_search_bench (
+    id         bigint PRIMARY KEY,
+    username   varchar(50)  NOT NULL,
+    email      varchar(100) NOT NULL,
+    first_name varchar(50)  NOT NULL,
+    last_name  varchar(50)  NOT NULL
+);
+
+INSERT INTO users_search_bench (id, username, email, first_name, last_name)
+SELECT g,
+       'user_' || substr(md5(g::text), 1, 10),
+       substr(md5(g::text), 11, 10) || '@example.com',
+       initcap(substr(md5('first' || g), 1, 7)),
+       initcap(substr(md5('last' || g), 1, 9))
+FROM generate_series(1, 1000000) g;
+
+ANALYZE users_search_bench;
+
+-- Baseline: the previous JPQL search, case-sensitive LIKE '%term%' plus a separate count
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM users_search_bench u
+WHERE u.username LIKE '%a3f9%' OR u.email LIKE '%a3f9%'
+   OR u.first_name LIKE '%a3f9%' OR u.last_name LIKE '%a3f9%'
+ORDER BY u.id
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM users_search_bench u
+WHERE u.username LIKE '%a3f9%' OR u.email LIKE '%a3f9%'
+   OR u.first_name LIKE '%a3f9%' OR u.last_name LIKE '%a3f9%';
+
+-- Same indexes as db/upgrade/002-user-search-indexes.sql
+CREATE INDEX idx_bench_username_trgm ON users_search_bench USING gin (username gin_trgm_ops);
+CREATE INDEX idx_bench_email_trgm ON users_search_bench USING gin (email gin_trgm_ops);
+CREATE INDEX idx_bench_first_name_trgm ON users_search_bench USING gin (first_name gin_trgm_ops);
+CREATE INDEX idx_bench_last_name_trgm ON users_search_bench USING gin (last_name gin_trgm_ops);
+CREATE INDEX idx_bench_username_prefix ON users_search_bench (lower(username) text_pattern_ops);
+CREATE INDEX idx_bench_email_prefix ON users_search_bench (lower(email) text_pattern_ops);
+
+ANALYZE users_search_bench;
+
+-- Indexed substring search (UserRepository.searchUsers)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM users_search_bench u
+WHERE u.username ILIKE '%a3f9%' OR u.email ILIKE '%a3f9%'
+   OR u.first_name ILIKE '%a3f9%' OR u.last_name ILIKE '%a3f9%'
+ORDER BY (lower(u.username) LIKE 'a3f9%' OR lower(u.email) LIKE 'a3f9%') DESC,
+         greatest(similarity(u.username, 'a3f9'), similarity(u.email, 'a3f9'),
+                  similarity(u.first_name, 'a3f9'), similarity(u.last_name, 'a3f9')) DESC,
+         u.id
+LIMIT 10;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM users_search_bench u
+WHERE u.username ILIKE '%a3f9%' OR u.email ILIKE '%a3f9%'
+   OR u.first_name ILIKE '%a3f9%' OR u.last_name ILIKE '%a3f9%';
+
+-- Indexed short-term prefix search (UserRepository.searchUsersByPrefix)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM users_search_bench u
+WHERE lower(u.username) LIKE 'ab%' OR lower(u.email) LIKE 'ab%'
+ORDER BY lower(u.username), u.id
+LIMIT 10;
+
+DROP TABLE users_search_bench;